@@ -0,0 +1,356 @@
+package com.rits.cloning.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates an {@code ITypedFastCloner} for every class annotated with {@code @GenerateCloner} and lists the generated
+ * cloners in {@code META-INF/services/com.rits.cloning.ITypedFastCloner}, so that {@code Cloner} registers them.
+ *
+ * <p>Generated cloners create the clone with {@code new} (records through their canonical constructor) and copy each
+ * field: primitives are copied, references are deep cloned through the {@code IDeepCloner} they're given. Fields are
+ * read and assigned directly when accessible from the package of the class, through their getters and setters
+ * otherwise; final fields are passed to a constructor taking them as parameters of the same names. Classes with fields
+ * that can be accessed neither way are reported as compile errors. Getters, setters and constructors are trusted to read
+ * and assign the fields as they are, which can't be checked here: one returning a view or a copy, or validating or
+ * normalizing its argument, changes what the clone holds.
+ *
+ * <p>The clone is registered in the clones as soon as it's instantiated. While constructor arguments are cloned, the
+ * instance is registered as under construction instead, so that a cycle back to it fails with a
+ * {@code CloningException} rather than overflowing the stack.
+ *
+ * <p>The processor works on names only and doesn't need the cloning library on the processor path.
+ */
+@SupportedAnnotationTypes(ClonerProcessor.GENERATE_CLONER)
+public class ClonerProcessor extends AbstractProcessor {
+    static final String GENERATE_CLONER = "com.rits.cloning.GenerateCloner";
+    static final String SERVICE_FILE = "META-INF/services/com.rits.cloning.ITypedFastCloner";
+    static final String SUFFIX = "_FastCloner";
+
+    private final List<String> generated = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                generate((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            error(type, "@GenerateCloner can only be applied to classes and records");
+            return;
+        }
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+            error(type, "@GenerateCloner classes must be neither abstract nor private");
+            return;
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS
+                || (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))) {
+            error(type, "@GenerateCloner classes must be top level or static nested classes");
+            return;
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String clonerName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + SUFFIX;
+        String typeName = erasure(type.asType());
+
+        StringBuilder body = new StringBuilder();
+        boolean ok = type.getKind() == ElementKind.RECORD
+                ? recordBody(type, typeName, body)
+                : classBody(type, typeName, packageName, body);
+        if (!ok) return;
+
+        String qualifiedName = packageName.isEmpty() ? clonerName : packageName + "." + clonerName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer w = file.openWriter()) {
+                if (!packageName.isEmpty()) {
+                    w.write("package " + packageName + ";\n\n");
+                }
+                w.write("@javax.annotation.processing.Generated(\"" + ClonerProcessor.class.getName() + "\")\n");
+                w.write("public final class " + clonerName + " implements com.rits.cloning.ITypedFastCloner {\n");
+                w.write("    @Override\n");
+                w.write("    public Class<?> getType() {\n");
+                w.write("        return " + typeName + ".class;\n");
+                w.write("    }\n\n");
+                w.write("    @Override\n");
+                w.write("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+                w.write("    public Object clone(Object t, com.rits.cloning.IDeepCloner cloner, java.util.Map<Object, Object> clones) {\n");
+                w.write("        " + typeName + " src = (" + typeName + ") t;\n");
+                w.write(body.toString());
+                w.write("    }\n");
+                w.write("}\n");
+            }
+            generated.add(qualifiedName);
+        } catch (IOException e) {
+            error(type, "failed to write " + qualifiedName + ": " + e);
+        }
+    }
+
+    /**
+     * records are cloned through their canonical constructor, passing the (cloned) component values
+     */
+    private boolean recordBody(TypeElement type, String typeName, StringBuilder body) {
+        List<TypeMirror> types = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        for (RecordComponentElement component : type.getRecordComponents()) {
+            types.add(component.asType());
+            args.add(value(component.asType(), "src." + component.getSimpleName() + "()"));
+        }
+        construct(typeName, types, args, body);
+        body.append("        return result;\n");
+        return true;
+    }
+
+    /**
+     * classes are instantiated through the constructor taking the fewest fields, final ones included, as parameters of
+     * the same names; the other fields, including inherited ones, are assigned directly or through their setters
+     */
+    private boolean classBody(TypeElement type, String typeName, String packageName, StringBuilder body) {
+        boolean ok = true;
+        // most derived first, so that a name refers to the field hiding the others
+        List<VariableElement> fields = new ArrayList<>();
+        Map<VariableElement, TypeElement> owners = new HashMap<>();
+        Map<VariableElement, String> reads = new HashMap<>();
+        TypeElement t = type;
+        while (t != null && !t.getQualifiedName().contentEquals("java.lang.Object")) {
+            // qualify through the declaring class, so hidden fields of super classes are read and assigned too
+            String src = t == type ? "src" : "((" + erasure(t.asType()) + ") src)";
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)) continue;
+                ExecutableElement getter = accessible(field, packageName) ? null : getter(t, field, packageName);
+                if (getter == null && !accessible(field, packageName)) {
+                    error(field, "@GenerateCloner fields must be accessible from package " + packageName
+                            + " or have a getter (" + type.getQualifiedName() + ")");
+                    ok = false;
+                    continue;
+                }
+                fields.add(field);
+                owners.put(field, t);
+                reads.put(field, src + "." + (getter == null ? field.getSimpleName() : getter.getSimpleName() + "()"));
+            }
+            TypeMirror superclass = t.getSuperclass();
+            t = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        if (!ok) return false;
+
+        ExecutableElement constructor = constructor(type, fields);
+        if (constructor == null) {
+            error(type, "@GenerateCloner classes need a non-private constructor taking all their final fields as"
+                    + " parameters of the same names and types, or a no-arg one if they have none");
+            return false;
+        }
+        List<VariableElement> passed = new ArrayList<>();
+        List<TypeMirror> types = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        for (VariableElement parameter : constructor.getParameters()) {
+            VariableElement field = fieldNamed(fields, parameter.getSimpleName().toString());
+            passed.add(field);
+            types.add(field.asType());
+            args.add(value(field.asType(), reads.get(field)));
+        }
+        construct(typeName, types, args, body);
+        for (VariableElement field : fields) {
+            if (passed.contains(field)) continue;
+            TypeElement owner = owners.get(field);
+            String dst = owner == type ? "result" : "((" + erasure(owner.asType()) + ") result)";
+            String value = value(field.asType(), reads.get(field));
+            ExecutableElement setter;
+            if (accessible(field, packageName)) {
+                body.append("        ").append(dst).append(".").append(field.getSimpleName()).append(" = ").append(value).append(";\n");
+            } else if ((setter = setter(owner, field, packageName)) != null) {
+                body.append("        ").append(dst).append(".").append(setter.getSimpleName()).append("(").append(value).append(");\n");
+            } else {
+                error(field, "@GenerateCloner fields must be accessible from package " + packageName
+                        + " or have a setter (" + type.getQualifiedName() + ")");
+                ok = false;
+            }
+        }
+        body.append("        return result;\n");
+        return ok;
+    }
+
+    /**
+     * appends the instantiation of result and registers it in the clones. While references passed to the constructor
+     * are deep cloned, src is registered as under construction, so that a cycle back to it fails instead of recursing
+     */
+    private void construct(String typeName, List<TypeMirror> types, List<String> args, StringBuilder body) {
+        boolean references = false;
+        for (TypeMirror type : types) {
+            if (!type.getKind().isPrimitive()) references = true;
+        }
+        if (references) {
+            body.append("        if (clones != null) com.rits.cloning.ITypedFastCloner.markUnderConstruction(clones, src);\n");
+        }
+        body.append("        ").append(typeName).append(" result = new ").append(typeName).append("(")
+                .append(String.join(", ", args)).append(");\n");
+        body.append("        if (clones != null) clones.put(src, result);\n");
+    }
+
+    /**
+     * @return whether the generated cloner, in package packageName, can access the field directly; final fields are
+     * only read, as constructors assign them
+     */
+    private boolean accessible(VariableElement field, String packageName) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) return false;
+        return modifiers.contains(Modifier.PUBLIC) || packageOf(field).contentEquals(packageName);
+    }
+
+    /**
+     * @return whether the generated cloner, in package packageName, can call the method or constructor
+     */
+    private boolean accessible(ExecutableElement method, String packageName) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) return false;
+        return modifiers.contains(Modifier.PUBLIC) || packageOf(method).contentEquals(packageName);
+    }
+
+    private Name packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName();
+    }
+
+    /**
+     * @return the getX(), isX() or x() method of owner returning the field's type, null if there is none
+     */
+    private ExecutableElement getter(TypeElement owner, VariableElement field, String packageName) {
+        String name = field.getSimpleName().toString();
+        String property = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(owner))) {
+            String methodName = method.getSimpleName().toString();
+            if ((methodName.equals("get" + property) || methodName.equals(name)
+                    || (methodName.equals("is" + property) && field.asType().getKind() == TypeKind.BOOLEAN))
+                    && method.getParameters().isEmpty() && accessible(method, packageName)
+                    && sameErasure(method.getReturnType(), field.asType())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the setX(value) method of owner taking the field's type, null if there is none
+     */
+    private ExecutableElement setter(TypeElement owner, VariableElement field, String packageName) {
+        String name = field.getSimpleName().toString();
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(owner))) {
+            if (method.getSimpleName().contentEquals(setterName) && method.getParameters().size() == 1
+                    && accessible(method, packageName) && sameErasure(method.getParameters().get(0).asType(), field.asType())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the accessible constructor with the fewest parameters, each one named after a field of the same type,
+     * which takes all the final fields; null if there is none
+     */
+    private ExecutableElement constructor(TypeElement type, List<VariableElement> fields) {
+        String packageName = packageOf(type).toString();
+        ExecutableElement best = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!accessible(constructor, packageName)) continue;
+            List<VariableElement> passed = new ArrayList<>();
+            for (VariableElement parameter : constructor.getParameters()) {
+                VariableElement field = fieldNamed(fields, parameter.getSimpleName().toString());
+                if (field == null || passed.contains(field) || !sameErasure(parameter.asType(), field.asType())) {
+                    passed = null;
+                    break;
+                }
+                passed.add(field);
+            }
+            if (passed == null) continue;
+            boolean allFinals = true;
+            for (VariableElement field : fields) {
+                if (field.getModifiers().contains(Modifier.FINAL) && !passed.contains(field)) allFinals = false;
+            }
+            if (allFinals && (best == null || constructor.getParameters().size() < best.getParameters().size())) {
+                best = constructor;
+            }
+        }
+        return best;
+    }
+
+    private static VariableElement fieldNamed(List<VariableElement> fields, String name) {
+        for (VariableElement field : fields) {
+            if (field.getSimpleName().contentEquals(name)) return field;
+        }
+        return null;
+    }
+
+    private boolean sameErasure(TypeMirror a, TypeMirror b) {
+        return processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(a), processingEnv.getTypeUtils().erasure(b));
+    }
+
+    /**
+     * @return the expression copying primitives and deep cloning references, unless shallow cloning
+     */
+    private String value(TypeMirror type, String expression) {
+        if (type.getKind().isPrimitive()) return expression;
+        return "clones == null ? " + expression + " : (" + erasure(type) + ") cloner.deepClone(" + expression + ", clones)";
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void writeServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer w = file.openWriter()) {
+                for (String name : generated) {
+                    w.write(name);
+                    w.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write " + SERVICE_FILE + ": " + e);
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
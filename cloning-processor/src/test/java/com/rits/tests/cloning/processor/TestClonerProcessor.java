@@ -0,0 +1,265 @@
+package com.rits.tests.cloning.processor;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.CloningException;
+import com.rits.cloning.ITypedFastCloner;
+import com.rits.cloning.processor.ClonerProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * compiles sample sources with the {@link ClonerProcessor} and clones through the generated cloners
+ */
+public class TestClonerProcessor {
+    @TempDir
+    Path dir;
+
+    private static final String CONFIG = String.join("\n",
+            "package sample;",
+            "import com.rits.cloning.GenerateCloner;",
+            "import java.util.*;",
+            "@GenerateCloner",
+            "public class Config extends Base {",
+            "    public int port;",
+            "    String name;",
+            "    protected List<String> hosts = new ArrayList<>();",
+            "    Config next;",
+            "    public Config() {}",
+            "    @GenerateCloner",
+            "    public record Endpoint(String host, int port, List<String> paths) {}",
+            "}",
+            "class Base {",
+            "    long id;",
+            "}");
+
+    @Test
+    public void testGeneratedCloners() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("sample/Config.java", CONFIG);
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR), diagnostics.getDiagnostics().toString());
+        assertEquals(List.of("sample.Config_FastCloner", "sample.Config_Endpoint_FastCloner"),
+                Files.readAllLines(dir.resolve("classes/META-INF/services/com.rits.cloning.ITypedFastCloner")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.resolve("classes").toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> config = loader.loadClass("sample.Config");
+            Object o = config.getConstructor().newInstance();
+            config.getField("port").setInt(o, 8080);
+            set(config, o, "name", "main");
+            set(config, o, "next", o);
+            set(config.getSuperclass(), o, "id", 42L);
+            @SuppressWarnings("unchecked") List<String> hosts = (List<String>) get(config, o, "hosts");
+            hosts.add("localhost");
+
+            ITypedFastCloner fastCloner = (ITypedFastCloner) loader.loadClass("sample.Config_FastCloner").getConstructor().newInstance();
+            assertSame(config, fastCloner.getType());
+
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            Cloner cloner;
+            try {
+                thread.setContextClassLoader(loader);
+                cloner = new Cloner();
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            }
+            assertThrows(IllegalArgumentException.class, () -> cloner.registerFastCloner(config, fastCloner), "generated cloner not discovered");
+
+            Object clone = cloner.deepClone(o);
+            assertNotSame(o, clone);
+            assertEquals(8080, config.getField("port").getInt(clone));
+            assertEquals("main", get(config, clone, "name"));
+            assertEquals(42L, get(config.getSuperclass(), clone, "id"));
+            assertSame(clone, get(config, clone, "next"));
+            assertNotSame(hosts, get(config, clone, "hosts"));
+            assertEquals(hosts, get(config, clone, "hosts"));
+
+            Class<?> endpoint = loader.loadClass("sample.Config$Endpoint");
+            Object e = endpoint.getConstructors()[0].newInstance("localhost", 80, new ArrayList<>(List.of("/")));
+            Object eClone = cloner.deepClone(e);
+            assertEquals(e, eClone);
+            assertNotSame(endpoint.getMethod("paths").invoke(e), endpoint.getMethod("paths").invoke(eClone));
+        }
+    }
+
+    @Test
+    public void testEncapsulatedFieldsGoThroughAccessorsAndConstructors() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("sample/Account.java", String.join("\n",
+                "package sample;",
+                "import com.rits.cloning.GenerateCloner;",
+                "import java.util.*;",
+                "@GenerateCloner",
+                "public class Account extends Owned {",
+                "    private final String id;",
+                "    private final List<String> tags;",
+                "    private boolean active;",
+                "    private Account parent;",
+                "    public Account(String id, List<String> tags) { this.id = id; this.tags = tags; }",
+                "    public Account(String id, List<String> tags, boolean active) { this(id, tags); this.active = active; }",
+                "    public String getId() { return id; }",
+                "    public List<String> tags() { return tags; }",
+                "    public boolean isActive() { return active; }",
+                "    public void setActive(boolean active) { this.active = active; }",
+                "    public Account getParent() { return parent; }",
+                "    public void setParent(Account parent) { this.parent = parent; }",
+                "}",
+                "class Owned {",
+                "    private String owner;",
+                "    public String getOwner() { return owner; }",
+                "    public void setOwner(String owner) { this.owner = owner; }",
+                "}"));
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR), diagnostics.getDiagnostics().toString());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.resolve("classes").toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> account = loader.loadClass("sample.Account");
+            List<String> tags = new ArrayList<>(List.of("a"));
+            Object parent = account.getConstructor(String.class, List.class).newInstance("p", new ArrayList<>());
+            Object o = account.getConstructor(String.class, List.class, boolean.class).newInstance("1", tags, true);
+            account.getMethod("setParent", account).invoke(o, parent);
+            account.getMethod("setOwner", String.class).invoke(o, "me");
+
+            Cloner cloner = new Cloner();
+            cloner.registerFastCloner(account, (ITypedFastCloner) loader.loadClass("sample.Account_FastCloner").getConstructor().newInstance());
+            Object clone = cloner.deepClone(o);
+            assertEquals("1", get(account, clone, "id"));
+            assertEquals(tags, get(account, clone, "tags"));
+            assertNotSame(tags, get(account, clone, "tags"));
+            assertEquals(true, get(account, clone, "active"));
+            assertEquals("me", get(account.getSuperclass(), clone, "owner"));
+            Object parentClone = get(account, clone, "parent");
+            assertNotSame(parent, parentClone);
+            assertEquals("p", get(account, parentClone, "id"));
+        }
+    }
+
+    @Test
+    public void testCycles() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("sample/Node.java", String.join("\n",
+                "package sample;",
+                "import com.rits.cloning.GenerateCloner;",
+                "import java.util.*;",
+                "@GenerateCloner",
+                "public class Node {",
+                "    private List<Node> children = new ArrayList<>();",
+                "    private Node parent;",
+                "    public Node() {}",
+                "    public List<Node> getChildren() { return children; }",
+                "    public void setChildren(List<Node> children) { this.children = children; }",
+                "    public Node getParent() { return parent; }",
+                "    public void setParent(Node parent) { this.parent = parent; }",
+                "    @GenerateCloner",
+                "    public static class Fixed {",
+                "        final List<Fixed> children;",
+                "        final Fixed parent;",
+                "        public Fixed(List<Fixed> children, Fixed parent) { this.children = children; this.parent = parent; }",
+                "    }",
+                "}"));
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR), diagnostics.getDiagnostics().toString());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.resolve("classes").toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> node = loader.loadClass("sample.Node");
+            Object parent = node.getConstructor().newInstance();
+            Object child = node.getConstructor().newInstance();
+            node.getMethod("setParent", node).invoke(child, parent);
+            @SuppressWarnings("unchecked") List<Object> children = (List<Object>) node.getMethod("getChildren").invoke(parent);
+            children.add(child);
+
+            Cloner cloner = new Cloner();
+            cloner.registerFastCloner(node, (ITypedFastCloner) loader.loadClass("sample.Node_FastCloner").getConstructor().newInstance());
+            Object clone = cloner.deepClone(parent);
+            @SuppressWarnings("unchecked") List<Object> clonedChildren = (List<Object>) get(node, clone, "children");
+            assertEquals(1, clonedChildren.size());
+            assertNotSame(child, clonedChildren.get(0));
+            assertSame(clone, get(node, clonedChildren.get(0), "parent"));
+
+            // final fields are passed to the constructor, so the cycle can't be cloned
+            Class<?> fixed = loader.loadClass("sample.Node$Fixed");
+            List<Object> fixedChildren = new ArrayList<>();
+            Object fixedParent = fixed.getConstructor(List.class, fixed).newInstance(fixedChildren, null);
+            fixedChildren.add(fixed.getConstructor(List.class, fixed).newInstance(new ArrayList<>(), fixedParent));
+            cloner.registerFastCloner(fixed, (ITypedFastCloner) loader.loadClass("sample.Node_Fixed_FastCloner").getConstructor().newInstance());
+            CloningException e = assertThrows(CloningException.class, () -> cloner.deepClone(fixedParent));
+            assertTrue(e.getMessage().startsWith("Cyclic reference to instance of class [sample.Node$Fixed]"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInaccessibleFieldsAreReported() throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("sample/Secret.java", String.join("\n",
+                "package sample;",
+                "@com.rits.cloning.GenerateCloner",
+                "public class Secret {",
+                "    private String value;",
+                "    private int size;",
+                "    public int getSize() { return size; }",
+                "}"));
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) errors.add(d.getMessage(null));
+        }
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).startsWith("@GenerateCloner fields must be accessible from package sample or have a getter"));
+
+        diagnostics = compile("sample/Frozen.java", String.join("\n",
+                "package sample;",
+                "@com.rits.cloning.GenerateCloner",
+                "public class Frozen {",
+                "    final int size;",
+                "    private String name;",
+                "    public Frozen(int length) { size = length; }",
+                "    public String getName() { return name; }",
+                "}"));
+        errors.clear();
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) errors.add(d.getMessage(null));
+        }
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).startsWith("@GenerateCloner classes need a non-private constructor taking all their final fields"));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String path, String source) throws Exception {
+        Path sources = dir.resolve("src");
+        Path classes = dir.resolve("classes");
+        Files.createDirectories(sources.resolve(path).getParent());
+        Files.createDirectories(classes);
+        Files.writeString(sources.resolve(path), source);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            String classpath = new File(Cloner.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", classpath, "-d", classes.toString()), null,
+                    fileManager.getJavaFileObjects(sources.resolve(path).toFile()));
+            task.setProcessors(List.of(new ClonerProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    private static Object get(Class<?> c, Object o, String name) throws ReflectiveOperationException {
+        var f = c.getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(o);
+    }
+
+    private static void set(Class<?> c, Object o, String name, Object value) throws ReflectiveOperationException {
+        var f = c.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(o, value);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rits.cloning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A {@link ClassValue} keeping count of the classes it computed a value for.
+ *
+ * <p>The values are stored within the classes themselves, so they are collected together with their class once its
+ * class loader is unloaded. The classes are only weakly referenced for counting them, which keeps the count in line
+ * with the classes still alive. Values must not refer to the {@link ClassValue} or to its owner, as the class would
+ * then keep both alive for as long as it lives itself.
+ *
+ * <p>Package-private, backs the per class caches of {@link Cloner}.
+ *
+ * @param <T> the type of the values
+ */
+abstract class ClassCache<T> extends ClassValue<T> {
+    private final Map<Class<?>, Boolean> classes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    protected final T computeValue(Class<?> type) {
+        T value = compute(type);
+        classes.put(type, Boolean.TRUE);
+        return value;
+    }
+
+    /**
+     * computes the value for a class not seen before, see {@link ClassValue#computeValue}
+     *
+     * @param type the class
+     * @return the value to store for the class
+     */
+    protected abstract T compute(Class<?> type);
+
+    /**
+     * @return the number of classes, not yet unloaded, holding a value
+     */
+    int size() {
+        return classes.size();
+    }
+
+    /**
+     * @return the classes, not yet unloaded, holding a value
+     */
+    List<Class<?>> classes() {
+        synchronized (classes) {
+            return new ArrayList<>(classes.keySet());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.rits.cloning;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * How a {@link Cloner} clones the instances of a class, as returned by {@link Cloner#explain}: the kind of cloner it
+ * picked and, for classes cloned field by field, what happens to each field and how it is accessed. {@link #toString()}
+ * dumps it all in a readable form, one line per field.
+ */
+public final class ClonePlan {
+    /**
+     * How the instances of a class are cloned.
+     */
+    public enum Kind {
+        // the instances are not cloned: registered immutables, dontClone, enums and the like
+        SHARED,
+        // the instances are replaced by null, see Cloner#nullInsteadOfClone
+        NULL,
+        ARRAY,
+        // through the registered IFastCloner
+        FAST,
+        // through the canonical constructor
+        RECORD,
+        // field by field unless frozen
+        FREEZABLE,
+        // through the plan compiled into a single method handle, see Cloner#setCompileCloners
+        COMPILED,
+        // through the copy constructor added by the CopyConstructorAgent
+        COPY_CONSTRUCTOR,
+        // through Object.clone(), then field by field for the fields not to share, see Cloner#setUseObjectClone
+        OBJECT_CLONE,
+        // instantiated, then field by field
+        FIELDS
+    }
+
+    /**
+     * What happens to the value of a field.
+     */
+    public enum Action {
+        // the clone shares the value
+        COPY,
+        DEEP_CLONE,
+        // the clone holds null, or the default value of primitives
+        NULL
+    }
+
+    /**
+     * Why a field gets its {@link Action}.
+     */
+    public enum Reason {
+        PRIMITIVE,
+        // the declared type is shared, i.e. immutable
+        SHARED_TYPE,
+        // with cloneSynthetics off
+        SYNTHETIC,
+        // the enclosing instance of an anonymous class, with cloneAnonymousParent off
+        ANONYMOUS_PARENT,
+        // a transient field with nullTransient on
+        NULL_TRANSIENT,
+        // annotated with one of the nullInsteadOfCloneFieldAnnotation annotations
+        ANNOTATION,
+        // decided by cloning strategies, which may also decide per value when deep cloned
+        STRATEGY,
+        // the declared type may be mutable
+        MUTABLE_TYPE
+    }
+
+    private final Class<?> type;
+    private final Kind kind;
+    private final IFastCloner fastCloner;
+    private final List<FieldPlan> fields;
+
+    ClonePlan(Class<?> type, Kind kind, IFastCloner fastCloner, List<FieldPlan> fields) {
+        this.type = type;
+        this.kind = kind;
+        this.fastCloner = fastCloner;
+        this.fields = List.copyOf(fields);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the fast cloner of {@link Kind#FAST} plans, null otherwise
+     */
+    public IFastCloner getFastCloner() {
+        return fastCloner;
+    }
+
+    /**
+     * @return the instance fields of the class and its super classes, empty unless the instances are cloned field by
+     * field, i.e. {@link Kind#FIELDS}, {@link Kind#OBJECT_CLONE}, {@link Kind#COMPILED}, {@link Kind#COPY_CONSTRUCTOR}
+     * and {@link Kind#FREEZABLE}
+     */
+    public List<FieldPlan> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the fields deep cloned, i.e. to look at when cloning this class is expensive
+     */
+    public List<FieldPlan> getDeepClonedFields() {
+        return fields.stream().filter(f -> f.action == Action.DEEP_CLONE).collect(Collectors.toList());
+    }
+
+    static String label(Enum<?> e) {
+        return e.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(type.getName()).append(": ").append(label(kind));
+        if (fastCloner != null) {
+            sb.append(' ').append(fastCloner.getClass().getName());
+        }
+        for (FieldPlan f : fields) {
+            sb.append(System.lineSeparator()).append("  ").append(f);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * What happens to a single field.
+     */
+    public static final class FieldPlan {
+        private final Field field;
+        private final Action action;
+        private final Reason reason;
+        private final String accessor;
+
+        FieldPlan(Field field, Action action, Reason reason, String accessor) {
+            this.field = field;
+            this.action = action;
+            this.reason = reason;
+            this.accessor = accessor;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+
+        /**
+         * @return how the field is read and written: "unsafe", "var handle", "final field setter handle", "final field
+         * reflection fallback" or "reflection" depending on the accessor and the field, or "block copy", "object
+         * clone", "compiled" and "copy constructor" when the cloner copies it by other means
+         */
+        public String getAccessor() {
+            return accessor;
+        }
+
+        @Override
+        public String toString() {
+            return field.getType().getSimpleName() + " " + field.getDeclaringClass().getSimpleName() + "." + field.getName()
+                    + ": " + label(action) + " (" + label(reason) + ") [" + accessor + "]";
+        }
+    }
+}
@@ -2,17 +2,42 @@ package com.rits.cloning;
 
 import org.objenesis.instantiator.ObjectInstantiator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 
 import static com.rits.cloning.Fields.handleWithContext;
@@ -27,18 +52,40 @@ import static com.rits.cloning.Fields.handleWithContext;
  */
 public class Cloner {
     private final IInstantiationStrategy instantiationStrategy;
-    private final Set<Class<?>> ignored = new HashSet<>();
-    private final Set<Class<?>> ignoredInstanceOf = new HashSet<>();
-    private final Set<Class<?>> nullInstead = new HashSet<>();
-    private final Set<Class<? extends Annotation>> nullInsteadFieldAnnotations = new HashSet<>();
-    private final Map<Class<?>, IFastCloner> fastCloners = new HashMap<>();
-    private final ConcurrentHashMap<Class<?>, Map<Field, Object /*cookie*/>> fieldsCache = new ConcurrentHashMap<>();
-    private List<ICloningStrategy> cloningStrategies;
+    // shared by the cloners which don't override allFields
+    private static final ClassCache<Map<Field, Object /*cookie*/>> SHARED_FIELDS = new ClassCache<>() {
+        @Override
+        protected Map<Field, Object> compute(Class<?> c) {
+            return cookies(declaredFields(c));
+        }
+    };
+    private final ClassCache<Map<Field, Object /*cookie*/>> fieldsCache = !overrides(getClass(), "allFields", Class.class) ? SHARED_FIELDS : new ClassCache<>() {
+        @Override
+        protected Map<Field, Object> compute(Class<?> c) {
+            return cookies(allFields(c));
+        }
+    };
 
-    private Map<Object, Object> ignoredInstances;
+    // the current configuration and its plans, replaced as a whole by each change
+    private volatile Setup setup;
+    // serializes the changes, the deep clones never take it
+    private final Object configLock = new Object();
+    // collects the registrations of the init hooks, so that they build a single configuration
+    private ClonerConfig.Builder initializing;
+
+    /**
+     * @return the current configuration, including the registrations of the init hooks so far while they run
+     */
+    private ClonerConfig config() {
+        final Setup s = setup;
+        if (s != null) return s.config;
+        synchronized (configLock) {
+            return initializing.build();
+        }
+    }
 
     public IDumpCloned getDumpCloned() {
-        return dumpCloned;
+        return config().dumpCloned;
     }
 
     /**
@@ -49,14 +96,9 @@ public class Cloner {
      *                   cloned classes.
      */
     public void setDumpCloned(IDumpCloned dumpCloned) {
-        this.dumpCloned = dumpCloned;
+        reconfigure(b -> b.dumpCloned(dumpCloned));
     }
 
-    private IDumpCloned dumpCloned = null;
-    private boolean cloningEnabled = true;
-    private boolean nullTransient = false;
-    private boolean cloneSynthetics = true;
-
     public Cloner() {
         this.instantiationStrategy = ObjenesisInstantiationStrategy.getInstance();
         init();
@@ -68,7 +110,7 @@ public class Cloner {
     }
 
     public boolean isNullTransient() {
-        return nullTransient;
+        return config().nullTransient;
     }
 
     /**
@@ -79,17 +121,533 @@ public class Cloner {
      * @param nullTransient true for transient fields to be nulled
      */
     public void setNullTransient(final boolean nullTransient) {
-        this.nullTransient = nullTransient;
+        reconfigure(b -> b.nullTransient(nullTransient));
     }
 
     public void setCloneSynthetics(final boolean cloneSynthetics) {
-        this.cloneSynthetics = cloneSynthetics;
+        reconfigure(b -> b.cloneSynthetics(cloneSynthetics));
+    }
+
+    public boolean isCompileCloners() {
+        return config().compileCloners;
+    }
+
+    /**
+     * if true, the field plan of each cloned class is compiled into a dedicated straight-line cloner instead of
+     * being interpreted field by field. Classes whose fields can't be accessed this way (i.e. records or classes of
+     * modules that are not open) silently fall back to the interpreted cloner. Default is false
+     *
+     * @param compileCloners true to compile per class cloners
+     */
+    public void setCompileCloners(final boolean compileCloners) {
+        reconfigure(b -> b.compileCloners(compileCloners));
+    }
+
+    public boolean isInferImmutables() {
+        return config().inferImmutables;
+    }
+
+    /**
+     * if true, classes whose instance fields are all final and hold primitives, enums or instances of final
+     * immutable classes are considered immutable and not cloned, as records of such values always are. Their instances
+     * are then returned as is rather than copied, so this is opt in. Default is false
+     *
+     * @param inferImmutables true to infer which classes are immutable
+     */
+    public void setInferImmutables(final boolean inferImmutables) {
+        reconfigure(b -> b.inferImmutables(inferImmutables));
+    }
+
+    public boolean isUseObjectClone() {
+        return config().useObjectClone;
+    }
+
+    /**
+     * if true, instances of {@link Cloneable} classes are first copied by the JVM's {@link Object#clone()} (without
+     * calling any clone() override) and then only the reference fields which need deep cloning are overwritten. This
+     * replaces the instantiation and copying of every primitive and immutable field. Default is true. Only applies
+     * with the default instantiation strategy: cloners created with their own {@link IInstantiationStrategy} always
+     * instantiate through it
+     *
+     * @param useObjectClone true to shallow copy Cloneable classes with Object.clone()
+     */
+    public void setUseObjectClone(final boolean useObjectClone) {
+        reconfigure(b -> b.useObjectClone(useObjectClone));
+    }
+
+    public int getParallelThreshold() {
+        return config().parallelThreshold;
+    }
+
+    /**
+     * sets the size from which the elements of an array, ArrayList, HashMap or ConcurrentHashMap are deep cloned in
+     * parallel chunks, on the fork join pool of the calling thread or else the common pool. The clones of each chunk
+     * are tracked apart and then merged, so objects already cloned before are reused by every chunk; if two chunks
+     * turn out to have cloned the same object, the elements are cloned again sequentially and graphs of the same root
+     * class are no longer cloned in parallel. Cloning strategies, fast cloners and instantiation strategies must then
+     * be thread safe, and dumping cloned classes disables it. Maps count their keys and values, so a map is cloned in
+     * parallel from half as many entries. Default is 0, which never clones in parallel
+     *
+     * @param parallelThreshold the number of elements, or keys and values, from which they're cloned in parallel, or 0
+     */
+    public void setParallelThreshold(final int parallelThreshold) {
+        reconfigure(b -> b.parallelThreshold(parallelThreshold));
+    }
+
+    public boolean isIterativeTraversal() {
+        return config().iterativeTraversal;
+    }
+
+    /**
+     * if true, deep clones keep the objects whose references are still to be cloned in a work list once they are a
+     * few levels deep, rather than cloning each reference recursively, so that graphs of any depth (i.e. long chains
+     * of nodes) are cloned within a bounded call stack. Records, fast cloners other than the list ones and copy
+     * constructors still get their values cloned completely, and so recursively, before they use them. Default is
+     * false
+     *
+     * @param iterativeTraversal true to clone iteratively
+     */
+    public void setIterativeTraversal(final boolean iterativeTraversal) {
+        reconfigure(b -> b.iterativeTraversal(iterativeTraversal));
+    }
+
+    /**
+     * @return the current configuration of this cloner
+     */
+    public ClonerConfig getConfig() {
+        return config();
+    }
+
+    /**
+     * replaces the configuration of this cloner, i.e. by one built from {@link ClonerConfig#toBuilder()}. Deep clones
+     * under way complete with the configuration they started with.
+     *
+     * @param config the new configuration
+     */
+    public void setConfig(final ClonerConfig config) {
+        if (config == null) throw new NullPointerException("config can't be null");
+        synchronized (configLock) {
+            if (initializing != null) {
+                initializing = config.toBuilder();
+            } else {
+                install(config);
+            }
+        }
+    }
+
+    /**
+     * applies changes to the configuration of this cloner atomically: they all take effect at once, with a single
+     * new version, and concurrent changes don't get lost. All the registration methods and setters of the cloner go
+     * through here.
+     * <p>
+     * The per class plans are rebuilt for the new configuration unless it only changes settings read while cloning,
+     * i.e. constants or dumping. The classes this cloner deep cloned are then planned again in the background, so
+     * that the clones following a change don't have to plan them.
+     *
+     * @param changes applies the changes to a builder of the current configuration
+     */
+    public void reconfigure(final Consumer<ClonerConfig.Builder> changes) {
+        synchronized (configLock) {
+            if (initializing != null) {
+                changes.accept(initializing);
+                return;
+            }
+            final ClonerConfig.Builder builder = setup.config.toBuilder();
+            changes.accept(builder);
+            install(builder.build());
+        }
+    }
+
+    private void install(final ClonerConfig config) {
+        final Setup old = setup;
+        if (old.config.hasSamePlans(config)) {
+            setup = new Setup(config, old.plans);
+            return;
+        }
+        final Setup next = new Setup(config, plansFor(config));
+        setup = next;
+        // the plans may be shared, so only the classes this cloner deep cloned are planned again, along with those
+        // reachable from them
+        final List<Class<?>> planned = graphSizes.classes();
+        if (!planned.isEmpty()) {
+            final Plans plans = next.plans;
+            ForkJoinPool.commonPool().execute(new Preparation(plans, true, () -> setup.plans != plans).task(planned));
+        }
+    }
+
+    /**
+     * plans the classes reachable from the roots, as {@link #prepare(ForkJoinPool, Class[])} does, on the common
+     * fork join pool
+     *
+     * @param roots the classes to be deep cloned
+     * @return what was planned
+     */
+    public PrepareSummary prepare(final Class<?>... roots) {
+        return prepare(ForkJoinPool.commonPool(), roots);
+    }
+
+    /**
+     * plans the classes reachable from the roots ahead of their first deep clone, i.e. while the application starts,
+     * so that the first deep clones don't have to. The classes are those of the roots and, recursively, the
+     * declared types of the fields of the classes which are cloned, along with their type arguments, i.e. the
+     * element type of a {@code List<Order>} field. Interfaces and abstract classes can't be planned before their
+     * implementations are known, so only their type arguments are followed.
+     *
+     * @param pool  plans the classes in parallel
+     * @param roots the classes to be deep cloned
+     * @return what was planned
+     */
+    public PrepareSummary prepare(final ForkJoinPool pool, final Class<?>... roots) {
+        return prepare(pool, Arrays.asList(roots), true);
+    }
+
+    private PrepareSummary prepare(final ForkJoinPool pool, final Collection<Class<?>> classes, final boolean followFields) {
+        final long start = System.nanoTime();
+        final Preparation preparation = new Preparation(setup.plans, followFields, () -> false);
+        pool.invoke(preparation.task(classes));
+        return new PrepareSummary(new ArrayList<>(preparation.planned), preparation.notCloned, preparation.failures,
+                System.nanoTime() - start);
+    }
+
+    private static final String PROFILE_HEADER = "# cloning profile: class name, then how it is cloned";
+
+    /**
+     * writes the classes planned so far, i.e. those deep cloned, to a profile which {@link #loadProfile} reads back
+     * to plan them before they are first cloned, i.e. after the application restarts. Each line holds the name of a
+     * class and how it is cloned, for reference: loading the profile plans the classes again rather than trusting
+     * decisions which a new version of the classes or of the configuration may change.
+     *
+     * @param file the profile to write
+     * @throws IOException if the profile can't be written
+     */
+    public void saveProfile(final Path file) throws IOException {
+        final Plans plans = setup.plans;
+        final List<String> lines = new ArrayList<>();
+        for (final Class<?> c : plans.cloners.classes()) {
+            // hidden classes, i.e. lambdas, can't be looked up by name
+            if (!c.isHidden()) {
+                lines.add(c.getName() + "\t" + describe(plans.cloners.get(c)));
+            }
+        }
+        Collections.sort(lines);
+        lines.add(0, PROFILE_HEADER);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    // the profiles to save on exit per cloner, held weakly so that registering one doesn't keep the cloner alive
+    private static final Map<Cloner, Set<Path>> PROFILES_ON_EXIT = new WeakHashMap<>();
+    private static boolean profilesHookAdded;
+
+    /**
+     * saves the profile when the JVM shuts down, see {@link #saveProfile}. A single shutdown hook saves the profiles
+     * of all cloners, each file once per cloner however many times it is registered. It holds the cloners weakly, so
+     * the profile of a cloner garbage collected before isn't saved; this is meant for long lived cloners. As with any
+     * shutdown hook this is best effort: the profiles aren't written if the JVM halts, and failures, i.e. an
+     * {@link UncheckedIOException} if a profile can't be written, go to the uncaught exception handler of the hook's
+     * thread once every profile was tried.
+     *
+     * @param file the profile to write
+     */
+    public void saveProfileOnExit(final Path file) {
+        synchronized (PROFILES_ON_EXIT) {
+            if (!profilesHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(Cloner::saveProfilesOnExit, "cloning-profile"));
+                profilesHookAdded = true;
+            }
+            PROFILES_ON_EXIT.computeIfAbsent(this, c -> new LinkedHashSet<>()).add(file);
+        }
+    }
+
+    private static void saveProfilesOnExit() {
+        final Map<Cloner, Set<Path>> profiles;
+        synchronized (PROFILES_ON_EXIT) {
+            profiles = new HashMap<>(PROFILES_ON_EXIT);
+        }
+        UncheckedIOException failure = null;
+        for (final Map.Entry<Cloner, Set<Path>> e : profiles.entrySet()) {
+            for (final Path file : e.getValue()) {
+                try {
+                    e.getKey().saveProfile(file);
+                } catch (IOException ex) {
+                    if (failure == null) {
+                        failure = new UncheckedIOException(ex);
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * plans the classes of a profile written by {@link #saveProfile}, with the context class loader, in parallel on
+     * the common fork join pool. Classes which are not found, i.e. since removed, are skipped.
+     *
+     * @param file the profile to read, which may not exist yet
+     * @return what was planned
+     * @throws IOException if the profile exists and can't be read
+     */
+    public PrepareSummary loadProfile(final Path file) throws IOException {
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loadProfile(file, loader != null ? loader : Cloner.class.getClassLoader());
+    }
+
+    /**
+     * plans the classes of a profile written by {@link #saveProfile}, in parallel on the common fork join pool.
+     * Classes which are not found, i.e. since removed, are skipped.
+     *
+     * @param file   the profile to read, which may not exist yet
+     * @param loader loads the classes of the profile
+     * @return what was planned
+     * @throws IOException if the profile exists and can't be read
+     */
+    public PrepareSummary loadProfile(final Path file, final ClassLoader loader) throws IOException {
+        final List<Class<?>> classes = new ArrayList<>();
+        if (Files.exists(file)) {
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                final int tab = line.indexOf('\t');
+                try {
+                    classes.add(Class.forName(tab < 0 ? line : line.substring(0, tab), false, loader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // gone since the profile was written
+                }
+            }
+        }
+        return prepare(ForkJoinPool.commonPool(), classes, false);
+    }
+
+    /**
+     * @return how a class cloner clones, as written to profiles
+     */
+    private static String describe(final ClassCloner cloner) {
+        final ClonePlan.Kind kind = kindOf(cloner);
+        final String name = kind.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        return kind == ClonePlan.Kind.FAST ? name + ":" + ((FastClonerCloner) cloner).fastCloner.getClass().getName() : name;
+    }
+
+    private static ClonePlan.Kind kindOf(final ClassCloner cloner) {
+        if (cloner == IGNORE_CLONER) return ClonePlan.Kind.SHARED;
+        if (cloner == NULL_CLONER) return ClonePlan.Kind.NULL;
+        if (cloner instanceof CloneArrayCloner) return ClonePlan.Kind.ARRAY;
+        if (cloner instanceof FastClonerCloner) return ClonePlan.Kind.FAST;
+        if (cloner instanceof RecordCloner) return ClonePlan.Kind.RECORD;
+        if (cloner instanceof IFreezableCloner) return ClonePlan.Kind.FREEZABLE;
+        if (cloner instanceof CompiledObjectCloner) return ClonePlan.Kind.COMPILED;
+        if (cloner instanceof CopyConstructorCloner) return ClonePlan.Kind.COPY_CONSTRUCTOR;
+        return ((CloneObjectCloner) cloner).objectClone != null ? ClonePlan.Kind.OBJECT_CLONE : ClonePlan.Kind.FIELDS;
+    }
+
+    /**
+     * explains how the instances of a class are cloned with the current configuration, planning the class if it
+     * wasn't already: the kind of cloner and, for classes cloned field by field, whether each field is copied, deep
+     * cloned or nulled, why, and how it is accessed. Useful to find out why cloning a class is expensive, i.e. which
+     * fields to mark immutable or to exclude, and which accessor tier the fields fall back to.
+     * <pre>
+     * System.out.println(cloner.explain(Order.class));
+     * </pre>
+     *
+     * @param c the class to explain
+     * @return the plan, whose toString() is a readable dump
+     */
+    public ClonePlan explain(final Class<?> c) {
+        final Plans plans = setup.plans;
+        final ClassCloner cloner = plans.cloners.get(c);
+        final ClonePlan.Kind kind = kindOf(cloner);
+        final List<ClonePlan.FieldPlan> fields;
+        switch (kind) {
+            case FREEZABLE:
+                fields = ((CloneObjectCloner) ((IFreezableCloner) cloner).plan).explain(plans, null);
+                break;
+            case COMPILED:
+                fields = ((CompiledObjectCloner) cloner).plan.explain(plans, "compiled");
+                break;
+            case COPY_CONSTRUCTOR:
+                fields = ((CopyConstructorCloner) cloner).plan.explain(plans, "copy constructor");
+                break;
+            case OBJECT_CLONE:
+            case FIELDS:
+                fields = ((CloneObjectCloner) cloner).explain(plans, null);
+                break;
+            default:
+                fields = List.of();
+        }
+        return new ClonePlan(c, kind, kind == ClonePlan.Kind.FAST ? ((FastClonerCloner) cloner).fastCloner : null, fields);
+    }
+
+    /**
+     * Plans a closure of classes, forking a task per class found.
+     */
+    private static final class Preparation {
+        private final Plans plans;
+        // false to plan the given classes only
+        private final boolean followFields;
+        // true once the plans aren't worth completing anymore
+        private final BooleanSupplier cancelled;
+        private final Set<Class<?>> seen = ConcurrentHashMap.newKeySet();
+        final Queue<Class<?>> planned = new ConcurrentLinkedQueue<>();
+        final Set<Class<?>> notCloned = ConcurrentHashMap.newKeySet();
+        final Map<Class<?>, RuntimeException> failures = new ConcurrentHashMap<>();
+
+        Preparation(Plans plans, boolean followFields, BooleanSupplier cancelled) {
+            this.plans = plans;
+            this.followFields = followFields;
+            this.cancelled = cancelled;
+        }
+
+        ForkJoinTask<?> task(final Collection<Class<?>> roots) {
+            final List<PrepareTask> tasks = new ArrayList<>();
+            for (final Class<?> root : roots) {
+                add(root, tasks);
+            }
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            };
+        }
+
+        /**
+         * adds a task planning c unless it was seen already
+         */
+        private void add(final Class<?> c, final List<PrepareTask> tasks) {
+            if (c.isPrimitive() || !seen.add(c)) return;
+            tasks.add(new PrepareTask(c));
+        }
+
+        /**
+         * adds the tasks for the classes found in the declared type of a field
+         */
+        private void addTypes(final Type type, final List<PrepareTask> tasks) {
+            if (type instanceof Class) {
+                final Class<?> c = (Class<?>) type;
+                if (c.isArray() || !c.isInterface() && !Modifier.isAbstract(c.getModifiers())) {
+                    add(c, tasks);
+                }
+            } else if (type instanceof ParameterizedType) {
+                addTypes(((ParameterizedType) type).getRawType(), tasks);
+                for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                    addTypes(argument, tasks);
+                }
+            } else if (type instanceof GenericArrayType) {
+                addTypes(((GenericArrayType) type).getGenericComponentType(), tasks);
+            } else if (type instanceof WildcardType) {
+                for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                    addTypes(bound, tasks);
+                }
+            }
+        }
+
+        private final class PrepareTask extends RecursiveAction {
+            private final Class<?> c;
+
+            PrepareTask(Class<?> c) {
+                this.c = c;
+            }
+
+            @Override
+            protected void compute() {
+                if (cancelled.getAsBoolean()) return;
+                final ClassCloner cloner;
+                try {
+                    cloner = plans.cloners.get(c);
+                } catch (RuntimeException e) {
+                    failures.put(c, e);
+                    return;
+                }
+                planned.add(c);
+                if (cloner == IGNORE_CLONER || cloner == NULL_CLONER) {
+                    notCloned.add(c);
+                    return;
+                }
+                if (!followFields) return;
+                final List<PrepareTask> tasks = new ArrayList<>();
+                if (c.isArray()) {
+                    addTypes(c.getComponentType(), tasks);
+                } else {
+                    for (Class<?> sc = c; sc != Object.class && sc != null; sc = sc.getSuperclass()) {
+                        for (final Field f : sc.getDeclaredFields()) {
+                            if (!Modifier.isStatic(f.getModifiers())) {
+                                addTypes(f.getGenericType(), tasks);
+                            }
+                        }
+                    }
+                }
+                invokeAll(tasks);
+            }
+        }
+    }
+
+    // the plans of the cloners with the default immutable hooks, by the hash of the part of their configuration the
+    // plans depend on and of their instantiation strategy. Only the cloners using the plans keep them, along with
+    // their configuration and so the classes and fast cloners registered, reachable
+    private static final Map<Integer, List<PlansRef>> SHARED_PLANS = new HashMap<>();
+    private static final ReferenceQueue<Plans> UNUSED_PLANS = new ReferenceQueue<>();
+
+    /**
+     * @return the plans for config, shared with the other cloners planning alike unless this one overrides the
+     * immutable hooks
+     */
+    private Plans plansFor(final ClonerConfig config) {
+        if (!sharesPlans) return new Plans(config, instantiationStrategy, this);
+        final int hash = 31 * config.plansHashCode() + System.identityHashCode(instantiationStrategy);
+        synchronized (SHARED_PLANS) {
+            for (Reference<? extends Plans> ref; (ref = UNUSED_PLANS.poll()) != null; ) {
+                final List<PlansRef> refs = SHARED_PLANS.get(((PlansRef) ref).hash);
+                if (refs != null && refs.remove(ref) && refs.isEmpty()) {
+                    SHARED_PLANS.remove(((PlansRef) ref).hash);
+                }
+            }
+            final List<PlansRef> refs = SHARED_PLANS.computeIfAbsent(hash, h -> new ArrayList<>(1));
+            for (PlansRef ref : refs) {
+                final Plans plans = ref.get();
+                if (plans != null && plans.instantiationStrategy == instantiationStrategy
+                        && plans.config.hasSamePlans(config)) {
+                    return plans;
+                }
+            }
+            final Plans plans = new Plans(config, instantiationStrategy, null);
+            refs.add(new PlansRef(plans, hash));
+            return plans;
+        }
+    }
+
+    private static final class PlansRef extends WeakReference<Plans> {
+        private final int hash;
+
+        PlansRef(Plans plans, int hash) {
+            super(plans, UNUSED_PLANS);
+            this.hash = hash;
+        }
     }
 
+    // the initial configurations of the cloners with the default init hooks, by the class loader their generated
+    // fast cloners are discovered with. Weak values, as the configurations refer to the fast cloners of the loader
+    private static final Map<ClassLoader, WeakReference<ClonerConfig>> DEFAULT_CONFIGS = Collections.synchronizedMap(new WeakHashMap<>());
+
     private void init() {
-        registerKnownJdkImmutableClasses();
-        registerKnownConstants();
-        registerFastCloners();
+        ClonerConfig config = null;
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (defaultInit) {
+            final WeakReference<ClonerConfig> ref = DEFAULT_CONFIGS.get(loader);
+            config = ref == null ? null : ref.get();
+        }
+        if (config == null) {
+            initializing = ClonerConfig.builder();
+            registerKnownJdkImmutableClasses();
+            registerKnownConstants();
+            registerFastCloners();
+            synchronized (configLock) {
+                config = initializing.build();
+                initializing = null;
+            }
+            if (defaultInit) {
+                DEFAULT_CONFIGS.put(loader, new WeakReference<>(config));
+            }
+        }
+        setup = new Setup(config, plansFor(config));
     }
 
     /**
@@ -108,6 +666,7 @@ public class Cloner {
         registerFastCloner(ConcurrentLinkedQueue.class, new FastClonerConcurrentLinkedQueue());
         registerFastCloner(EnumMap.class, new FastClonerEnumMap());
         registerFastCloner(LinkedHashSet.class, new FastClonerLinkedHashSet());
+        registerFastCloner(Optional.class, new FastClonerOptional());
 
         // register private classes
         FastClonerArrayListSubList subListCloner = new FastClonerArrayListSubList();
@@ -119,40 +678,79 @@ public class Cloner {
         registerInaccessibleClassToBeFastCloned("java.util.ImmutableCollections$List12", listOf12);
         FastClonerSetOf12 setOf12 = new FastClonerSetOf12();
         registerInaccessibleClassToBeFastCloned("java.util.ImmutableCollections$Set12", setOf12);
+
+        registerDiscoveredFastCloners();
+    }
+
+    /**
+     * registers the {@link ITypedFastCloner}s found by {@link ServiceLoader} via the context class loader, i.e. those
+     * generated for {@link GenerateCloner} annotated classes. Classes that already have a fast cloner are skipped.
+     */
+    protected void registerDiscoveredFastCloners() {
+        for (final ITypedFastCloner fastCloner : ServiceLoader.load(ITypedFastCloner.class)) {
+            reconfigure(b -> b.fastCloners.putIfAbsent(fastCloner.getType(), fastCloner));
+        }
     }
 
     protected void registerInaccessibleClassToBeFastCloned(String className, IFastCloner fastCloner) {
         try {
             ClassLoader classLoader = getClass().getClassLoader();
             Class<?> subListClz = classLoader.loadClass(className);
-            fastCloners.put(subListClz, fastCloner);
+            reconfigure(b -> b.fastCloners.put(subListClz, fastCloner));
         } catch (ClassNotFoundException e) {
             // ignore, maybe a jdk without SubList
         }
     }
 
-    private final IDeepCloner deepCloner = this::cloneInternal;
+    private final IDeepCloner deepCloner = new DeepCloner(false);
+    // for callers which need the values they clone to be complete when returned, see setIterativeTraversal
+    private final IDeepCloner completeDeepCloner = new DeepCloner(true);
+
+    private final class DeepCloner implements IDeepCloner {
+        private final boolean complete;
+
+        DeepCloner(boolean complete) {
+            this.complete = complete;
+        }
+
+        public <T> T deepClone(T o, Map<Object, Object> clones) {
+            return complete ? cloneComplete(o, clones) : cloneInternal(o, clones);
+        }
+
+        @Override
+        public boolean clonesInParallel(int size, Map<Object, Object> clones) {
+            return Cloner.this.clonesInParallel(size, clones);
+        }
+
+        @Override
+        public Object[] deepCloneAll(Object[] values, Map<Object, Object> clones) {
+            return clonesInParallel(values.length, clones) ? cloneInParallel(values, (ClonesMap) clones) : IDeepCloner.super.deepCloneAll(values, clones);
+        }
+    }
 
     protected Object fastClone(final Object o, final Map<Object, Object> clones) {
         final Class<?> c = o.getClass();
-        final IFastCloner fastCloner = fastCloners.get(c);
-        if (fastCloner != null) return fastCloner.clone(o, deepCloner, clones);
+        final IFastCloner fastCloner = setupOf(clones).config.fastCloners.get(c);
+        if (fastCloner != null) return fastCloner.clone(o, completeDeepCloner, clones);
         return null;
     }
 
     public void registerConstant(Object o) {
-        if (ignoredInstances == null) {
-            ignoredInstances = new IdentityHashMap<>();
-        }
-        ignoredInstances.put(o, o);
+        reconfigure(b -> b.registerConstant(o));
     }
 
     public void registerConstant(Class<?> c, String privateFieldName) {
+        final Object constant = staticFieldValue(c, privateFieldName);
+        reconfigure(b -> b.registerConstant(constant));
+    }
+
+    private Object staticFieldValue(Class<?> c, String privateFieldName) {
         for (var entry : getFieldToCookieMap(c).entrySet()) {
             Field field = entry.getKey();
             if (field.getName().equals(privateFieldName)) {
-                handleWithContext(field, () -> registerConstant(Fields.ACCESSOR.get(field, entry.getValue(), null)));
-                return;
+                final Object[] value = new Object[1];
+                handleWithContext(field, () -> value[0] = Fields.ACCESSOR.get(field, entry.getValue(), null));
+                return value[0];
             }
         }
         throw new CloningException(String.format("No such field [%s] within [%s]", privateFieldName, c.getName()));
@@ -181,6 +779,16 @@ public class Cloner {
         registerImmutable(URL.class);
         registerImmutable(UUID.class);
         registerImmutable(Pattern.class);
+
+        registerImmutable(Duration.class, Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class, MonthDay.class,
+                OffsetDateTime.class, OffsetTime.class, Period.class, Year.class, YearMonth.class, ZonedDateTime.class,
+                ZoneOffset.class);
+        try {
+            // the ZoneId of region based time zones
+            registerImmutable(Class.forName("java.time.ZoneRegion"));
+        } catch (ClassNotFoundException e) {
+            // ignore, internal to the jdk
+        }
     }
 
     protected void registerKnownConstants() {
@@ -188,10 +796,7 @@ public class Cloner {
 
     public void registerCloningStrategy(ICloningStrategy strategy) {
         if (strategy == null) throw new NullPointerException("strategy can't be null");
-        if (cloningStrategies == null) {
-            cloningStrategies = new ArrayList<>();
-        }
-        cloningStrategies.add(strategy);
+        reconfigure(b -> b.registerCloningStrategy(strategy));
     }
 
     /**
@@ -204,14 +809,16 @@ public class Cloner {
      * @param classes array of classes
      */
     public void registerStaticFields(final Class<?>... classes) {
+        final List<Object> constants = new ArrayList<>();
         for (final Class<?> c : classes) {
             for (final Field field : getFieldToCookieMap(c).keySet()) {
                 final int mods = field.getModifiers();
                 if (Modifier.isStatic(mods) && !field.getType().isPrimitive()) {
-                    registerConstant(c, field.getName());
+                    constants.add(staticFieldValue(c, field.getName()));
                 }
             }
         }
+        reconfigure(b -> constants.forEach(b::registerConstant));
     }
 
     /**
@@ -231,11 +838,11 @@ public class Cloner {
      *          be added to the clone.
      */
     public void dontClone(final Class<?>... c) {
-        Collections.addAll(ignored, c);
+        reconfigure(b -> b.dontClone(c));
     }
 
     public void dontCloneInstanceOf(final Class<?>... c) {
-        Collections.addAll(ignoredInstanceOf, c);
+        reconfigure(b -> b.dontCloneInstanceOf(c));
     }
 
     public void setDontCloneInstanceOf(final Class<?>... c) {
@@ -248,12 +855,12 @@ public class Cloner {
      * @param c the classes to nullify during cloning
      */
     public void nullInsteadOfClone(final Class<?>... c) {
-        Collections.addAll(nullInstead, c);
+        reconfigure(b -> b.nullInsteadOfClone(c));
     }
 
     // spring framework friendly version of nullInsteadOfClone
     public void setExtraNullInsteadOfClone(final Set<Class<?>> set) {
-        nullInstead.addAll(set);
+        reconfigure(b -> b.nullInstead.addAll(set));
     }
 
     /**
@@ -263,12 +870,12 @@ public class Cloner {
      */
     @SafeVarargs
     final public void nullInsteadOfCloneFieldAnnotation(final Class<? extends Annotation>... a) {
-        Collections.addAll(nullInsteadFieldAnnotations, a);
+        reconfigure(b -> b.nullInsteadOfCloneFieldAnnotation(a));
     }
 
     // spring framework friendly version of nullInsteadOfCloneAnnotation
     public void setExtraNullInsteadOfCloneFieldAnnotation(final Set<Class<? extends Annotation>> set) {
-        nullInsteadFieldAnnotations.addAll(set);
+        reconfigure(b -> b.nullInsteadFieldAnnotations.addAll(set));
     }
 
     /**
@@ -277,21 +884,20 @@ public class Cloner {
      * @param c the immutable class
      */
     public void registerImmutable(final Class<?>... c) {
-        Collections.addAll(ignored, c);
+        reconfigure(b -> b.registerImmutable(c));
     }
 
     // spring framework friendly version of registerImmutable
     public void setExtraImmutables(final Set<Class<?>> set) {
-        ignored.addAll(set);
+        reconfigure(b -> b.ignored.addAll(set));
     }
 
     public void registerFastCloner(final Class<?> c, final IFastCloner fastCloner) {
-        if (fastCloners.containsKey(c)) throw new IllegalArgumentException(c + " already fast-cloned!");
-        fastCloners.put(c, fastCloner);
+        reconfigure(b -> b.registerFastCloner(c, fastCloner));
     }
 
     public void unregisterFastCloner(final Class<?> c) {
-        fastCloners.remove(c);
+        reconfigure(b -> b.unregisterFastCloner(c));
     }
 
     /**
@@ -321,25 +927,129 @@ public class Cloner {
      */
     public <T> T deepClone(final T o) {
         if (o == null) return null;
-        if (!cloningEnabled) return o;
-        if (dumpCloned != null) {
-            dumpCloned.startCloning(o.getClass());
+        final Setup s = setup;
+        if (!s.config.cloningEnabled) return o;
+        if (s.dumpCloned != null) {
+            s.dumpCloned.startCloning(o.getClass());
+        }
+        final ClonesMap clones = borrowClonesMap(o.getClass(), s);
+        try {
+            return cloneComplete(o, clones);
+        } finally {
+            returnClonesMap(clones);
+        }
+    }
+
+    /**
+     * deep clones "o", which the caller guarantees to be a tree: no object is reachable from "o" through more than one
+     * reference. The clones are then not tracked to preserve shared references and cycles, which saves an identity
+     * map lookup and insertion per cloned object. An object reachable twice is cloned twice, and a cycle overflows
+     * the stack.
+     *
+     * @param <T> the type of "o"
+     * @param o   the tree to be deep-cloned
+     * @return a deep-clone of "o".
+     */
+    public <T> T deepCloneTree(final T o) {
+        if (o == null) return null;
+        final Setup s = setup;
+        if (!s.config.cloningEnabled) return o;
+        if (s.dumpCloned != null) {
+            s.dumpCloned.startCloning(o.getClass());
+        }
+        final ClonesMap clones = borrowClonesMap(o.getClass(), s);
+        clones.tree = true;
+        try {
+            return cloneComplete(o, clones);
+        } finally {
+            returnClonesMap(clones);
         }
-        Map<Object, Object> clones = new ClonesMap();
-        return cloneInternal(o, clones);
     }
 
     public <T> T deepCloneDontCloneInstances(final T o, final Object... dontCloneThese) {
         if (o == null) return null;
-        if (!cloningEnabled) return o;
-        if (dumpCloned != null) {
-            dumpCloned.startCloning(o.getClass());
+        final Setup s = setup;
+        if (!s.config.cloningEnabled) return o;
+        if (s.dumpCloned != null) {
+            s.dumpCloned.startCloning(o.getClass());
+        }
+        final ClonesMap clones = borrowClonesMap(o.getClass(), s);
+        try {
+            for (final Object dc : dontCloneThese) {
+                clones.put(dc, dc);
+            }
+            return cloneComplete(o, clones);
+        } finally {
+            returnClonesMap(clones);
+        }
+    }
+
+    // the clones maps reused by the deep clones, so that steady state cloning only allocates the clones. Rather than
+    // one map per thread, which virtual threads would each keep, threads share a few stripes of one map each
+    private static final int POOL_STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+    // the stripes are this far apart within the pool, so that they don't share cache lines
+    private static final int POOL_SPACING = 16;
+    private final AtomicReferenceArray<ClonesMap> pooledClonesMaps = new AtomicReferenceArray<>(POOL_STRIPES * POOL_SPACING);
+    // bigger maps are dropped rather than pooled, so that the odd big graph doesn't keep its big table alive
+    private static final int MAX_POOLED_CLONES = 256;
+
+    // how many objects the last deep clones of each root class cloned, to size their clones maps up front
+    private final ClassCache<GraphSize> graphSizes = new ClassCache<>() {
+        @Override
+        protected GraphSize compute(Class<?> type) {
+            return new GraphSize();
+        }
+    };
+
+    private static final class GraphSize {
+        // racy, as any recent size will do
+        private int expected;
+        // true once parallel chunks of these graphs cloned the same objects, so that they're cloned sequentially
+        boolean sharedAcrossChunks;
+
+        void record(int size) {
+            // follows bigger graphs at once and smaller ones slowly, so that the odd small graph doesn't undersize
+            // the maps of the next ones
+            final int e = expected;
+            final int n = Math.max(size, e - (e >> 3));
+            if (n != e) expected = n;
+        }
+    }
+
+    private static int poolStripe() {
+        final long id = Thread.currentThread().getId();
+        return ((int) (id * 0x9E3779B97F4A7C15L >>> 32) & (POOL_STRIPES - 1)) * POOL_SPACING;
+    }
+
+    private ClonesMap borrowClonesMap(final Class<?> root, final Setup s) {
+        final GraphSize graphSize = graphSizes.get(root);
+        final int expected = graphSize.expected;
+        ClonesMap clones = null;
+        if (expected <= MAX_POOLED_CLONES) {
+            final int stripe = poolStripe();
+            clones = pooledClonesMaps.get(stripe);
+            // nested deep clones, i.e. from within fast cloners, or other threads of the stripe get a map of their own
+            if (clones != null && !pooledClonesMaps.compareAndSet(stripe, clones, null)) clones = null;
+        }
+        final Object[] constants = s.config.constants;
+        if (clones == null) {
+            clones = new ClonesMap(expected, constants);
+        } else {
+            clones.prepare(expected, constants);
+        }
+        clones.graphSize = graphSize;
+        clones.setup = s;
+        return clones;
+    }
+
+    private void returnClonesMap(final ClonesMap clones) {
+        if (!clones.tree) {
+            clones.graphSize.record(clones.added());
         }
-        final Map<Object, Object> clones = new ClonesMap();
-        for (final Object dc : dontCloneThese) {
-            clones.put(dc, dc);
+        if (clones.capacity() <= ClonesTable.capacity(MAX_POOLED_CLONES + clones.setup.config.constants.length)) {
+            clones.clear();
+            pooledClonesMaps.compareAndSet(poolStripe(), null, clones);
         }
-        return cloneInternal(o, clones);
     }
 
     /**
@@ -352,218 +1062,1032 @@ public class Cloner {
      */
     public <T> T shallowClone(final T o) {
         if (o == null) return null;
-        if (!cloningEnabled) return o;
+        if (!setup.config.cloningEnabled) return o;
         return cloneInternal(o, null);
     }
 
-    // caches immutables for quick reference
-    private final ConcurrentHashMap<Class<?>, Boolean> immutables = new ConcurrentHashMap<>();
-    private boolean cloneAnonymousParent = true;
-
     /**
-     * override this to decide if a class is immutable. Immutable classes are not cloned.
-     *
-     * @param clz the class under check
-     * @return true to mark clz as immutable and skip cloning it
+     * A configuration along with the per class plans built for it. Each configuration change installs a new setup, so
+     * that plans built for different configurations are never mixed, though the plans carry over when only settings
+     * read while cloning change.
      */
-    protected boolean considerImmutable(final Class<?> clz) {
-        return false;
-    }
-
-    protected Class<?> getImmutableAnnotation() {
-        return Immutable.class;
+    private static final class Setup {
+        final ClonerConfig config;
+        // read while cloning
+        final IDumpCloned dumpCloned;
+        final boolean iterativeTraversal;
+        final Plans plans;
+        final ClassCache<ClassCloner> cloners;
+
+        Setup(ClonerConfig config, Plans plans) {
+            this.config = config;
+            dumpCloned = config.dumpCloned;
+            iterativeTraversal = config.iterativeTraversal;
+            this.plans = plans;
+            cloners = plans.cloners;
+        }
     }
 
     /**
-     * decides if a class is to be considered immutable or not
-     *
-     * @param clz the class under check
-     * @return true if the clz is considered immutable
+     * The per class plans built for a configuration. Unless the cloner overrides the hooks deciding which classes are
+     * immutable, they don't depend on the cloner, and so are shared by the cloners whose configurations differ only by
+     * settings read while cloning, see {@link #plansFor}.
      */
-    private boolean isImmutable(final Class<?> clz) {
-        final Boolean isIm = immutables.get(clz);
-        if (isIm != null) return isIm;
-        if (considerImmutable(clz)) return true;
-
-        final Class<?> immutableAnnotation = getImmutableAnnotation();
-        for (final Annotation annotation : clz.getDeclaredAnnotations()) {
-            if (annotation.annotationType() == immutableAnnotation) {
-                immutables.put(clz, Boolean.TRUE);
-                return true;
+    private static final class Plans {
+        final ClonerConfig config;
+        private final IInstantiationStrategy instantiationStrategy;
+        // the cloner whose immutable hooks are overridden, null for the default hooks
+        private final Cloner hooks;
+        // the cloners are stored within the cloned classes, so they are collected together with the classes
+        final ClassCache<ClassCloner> cloners = new ClassCache<>() {
+            @Override
+            protected ClassCloner compute(Class<?> clz) {
+                return findDeepCloner(clz);
             }
+        };
+        // caches immutables for quick reference
+        final ClassCache<Boolean> immutables = new ClassCache<>() {
+            @Override
+            protected Boolean compute(Class<?> clz) {
+                return isImmutable(clz, new HashSet<>());
+            }
+        };
+
+        Plans(ClonerConfig config, IInstantiationStrategy instantiationStrategy, Cloner hooks) {
+            this.config = config;
+            this.instantiationStrategy = instantiationStrategy;
+            this.hooks = hooks;
+        }
+
+        private boolean considerImmutable(Class<?> clz) {
+            return hooks != null && hooks.considerImmutable(clz);
+        }
+
+        private Class<?> getImmutableAnnotation() {
+            return hooks != null ? hooks.getImmutableAnnotation() : Immutable.class;
+        }
+
+        ObjectInstantiator<?> instantiatorOf(Class<?> clz) {
+            return instantiationStrategy.getInstantiatorOf(clz);
+        }
+
+        boolean instantiatesBlank(Class<?> clz) {
+            return instantiationStrategy.instantiatesBlank(clz);
+        }
+
+        /**
+         * @return true if Cloneable classes are copied by Object.clone(), which only replaces the default Objenesis
+         * instantiation: custom instantiation strategies are always used
+         */
+        boolean usesObjectClone() {
+            return config.useObjectClone && instantiationStrategy == ObjenesisInstantiationStrategy.getInstance();
+        }
+
+        /**
+         * decides if a class is to be considered immutable or not
+         *
+         * @param clz the class under check
+         * @return true if the clz is considered immutable
+         */
+        boolean isImmutable(final Class<?> clz) {
+            return considerImmutable(clz) || immutables.get(clz);
+        }
+
+        /**
+         * @param visiting the classes being checked, see {@link #isOfImmutables}
+         * @return true if clz is annotated as immutable or made of immutables
+         */
+        boolean isImmutable(final Class<?> clz, final Set<Class<?>> visiting) {
+            final Class<?> immutableAnnotation = getImmutableAnnotation();
+            for (final Annotation annotation : clz.getDeclaredAnnotations()) {
+                if (annotation.annotationType() == immutableAnnotation) {
+                    return true;
+                }
+            }
+            Class<?> c = clz.getSuperclass();
+            while (c != null && c != Object.class) {
+                for (final Annotation annotation : c.getDeclaredAnnotations()) {
+                    if (annotation.annotationType() == Immutable.class) {
+                        final Immutable im = (Immutable) annotation;
+                        if (im.subClass()) {
+                            return true;
+                        }
+                    }
+                }
+                c = c.getSuperclass();
+            }
+            return (config.inferImmutables || clz.isRecord()) && isOfImmutables(clz, visiting);
+        }
+
+        /**
+         * @param visiting the classes being checked, assumed to be immutable when referred to by their own fields
+         * @return true if every instance field of clz is final and holds a value this cloner never clones, so that
+         * instances of clz can be shared rather than copied
+         */
+        boolean isOfImmutables(final Class<?> clz, final Set<Class<?>> visiting) {
+            if (config.cloningStrategies != null || Modifier.isAbstract(clz.getModifiers()) || clz.isArray()) return false;
+            if (config.fastCloners.containsKey(clz)) return false;
+            visiting.add(clz);
+            // instances of classes without fields only serve their identity, i.e. as locks or markers
+            boolean stateless = !clz.isRecord();
+            for (Class<?> c = clz; c != Object.class && c != null; c = c.getSuperclass()) {
+                for (final Field f : c.getDeclaredFields()) {
+                    final int modifiers = f.getModifiers();
+                    if (Modifier.isStatic(modifiers)) continue;
+                    stateless = false;
+                    if (!Modifier.isFinal(modifiers) || (config.nullTransient && Modifier.isTransient(modifiers)) || isFieldNullInsteadBecauseOfAnnotation(f)) {
+                        return false;
+                    }
+                    final Class<?> type = f.getType();
+                    if (type.isPrimitive() || Enum.class.isAssignableFrom(type)) continue;
+                    // values of non final types may be instances of mutable sub classes
+                    if (!Modifier.isFinal(type.getModifiers()) || type.isArray() || config.nullInstead.contains(type)) return false;
+                    // nested classes are checked within this check, so that classes referring to each other terminate
+                    if (!visiting.contains(type) && !config.ignored.contains(type) && !considerImmutable(type) && !isImmutable(type, visiting)) {
+                        return false;
+                    }
+                }
+            }
+            return !stateless;
+        }
+
+        /**
+         * @return true if all values of the field type are returned as is by {@link Cloner#cloneInternal}, so fields of that
+         * type never need to be cloned
+         */
+        boolean isShared(final Class<?> type) {
+            if (Enum.class.isAssignableFrom(type)) return true;
+            // values of non final types may be instances of mutable sub classes
+            return Modifier.isFinal(type.getModifiers()) && !type.isArray() && !config.nullInstead.contains(type)
+                    && (config.ignored.contains(type) || isImmutable(type));
         }
-        Class<?> c = clz.getSuperclass();
-        while (c != null && c != Object.class) {
-            for (final Annotation annotation : c.getDeclaredAnnotations()) {
-                if (annotation.annotationType() == Immutable.class) {
-                    final Immutable im = (Immutable) annotation;
-                    if (im.subClass()) {
-                        immutables.put(clz, Boolean.TRUE);
+
+        boolean isFieldNullInsteadBecauseOfAnnotation(Field f) {
+            if (!config.nullInsteadFieldAnnotations.isEmpty()) {
+                for (Annotation annotation : f.getAnnotations()) {
+                    boolean isAnnotatedWithNullInsteadAnnotation =
+                            config.nullInsteadFieldAnnotations.contains(annotation.annotationType());
+                    if (isAnnotatedWithNullInsteadAnnotation) {
                         return true;
                     }
                 }
             }
-            c = c.getSuperclass();
+            return false;
         }
-        immutables.put(clz, Boolean.FALSE);
+
+        ClassCloner findDeepCloner(Class<?> clz) {
+            if (Enum.class.isAssignableFrom(clz)) {
+                return IGNORE_CLONER;
+            } else if (IFreezable.class.isAssignableFrom(clz)) {
+                return new IFreezableCloner(this, clz);
+            } else if (config.nullInstead.contains(clz)) {
+                return NULL_CLONER;
+            } else if (config.ignored.contains(clz)) {
+                return IGNORE_CLONER;
+            } else if (isImmutable(clz)) {
+                return IGNORE_CLONER;
+            } else if (clz.isArray()) {
+                return new CloneArrayCloner(this, clz);
+            } else {
+                final IFastCloner fastCloner = config.fastCloners.get(clz);
+                if (fastCloner != null) {
+                    return new FastClonerCloner(fastCloner);
+                } else {
+                    for (final Class<?> iClz : config.ignoredInstanceOf) {
+                        if (iClz.isAssignableFrom(clz)) {
+                            return IGNORE_CLONER;
+                        }
+                    }
+                }
+            }
+            if (clz.isRecord()) {
+                try {
+                    return new RecordCloner(this, clz);
+                } catch (IllegalAccessException | NoSuchMethodException | NoSuchFieldException e) {
+                    // i.e. records of modules which are not open to us
+                }
+            }
+            final CloneObjectCloner cloner = new CloneObjectCloner(this, clz);
+            final ClassCloner copyConstructorCloner = cloner.copyConstructorCloner(this);
+            if (copyConstructorCloner != null) {
+                return copyConstructorCloner;
+            }
+            return config.compileCloners ? cloner.compile() : cloner;
+        }
+
+        /**
+         * @return the cloning strategies which may apply to the values of field, with the static ones resolved, or null
+         * if none can apply
+         */
+        FieldStrategies strategiesFor(Field field) {
+            if (config.cloningStrategies == null) return null;
+            final List<ICloningStrategy> perInstance = new ArrayList<>();
+            ICloningStrategy.Strategy resolved = ICloningStrategy.Strategy.IGNORE;
+            for (ICloningStrategy strategy : config.cloningStrategies) {
+                if (strategy instanceof IStaticCloningStrategy) {
+                    resolved = ((IStaticCloningStrategy) strategy).strategyFor(field);
+                    // the strategies after the first one applying are never asked
+                    if (resolved != ICloningStrategy.Strategy.IGNORE) break;
+                } else {
+                    perInstance.add(strategy);
+                }
+            }
+            if (perInstance.isEmpty() && resolved == ICloningStrategy.Strategy.IGNORE) return null;
+            return new FieldStrategies(field, perInstance.toArray(new ICloningStrategy[0]), resolved);
+        }
+    }
+
+    /**
+     * override this to decide if a class is immutable. Immutable classes are not cloned.
+     *
+     * @param clz the class under check
+     * @return true to mark clz as immutable and skip cloning it
+     */
+    protected boolean considerImmutable(final Class<?> clz) {
         return false;
     }
 
-    private final Map<Class<?>, IDeepCloner> cloners = new ConcurrentHashMap<>();
+    protected Class<?> getImmutableAnnotation() {
+        return Immutable.class;
+    }
+
+    // per field caches of cloners bypass cloneInternal, so they are off for sub classes overriding it
+    private final boolean inlineCaches = !overrides(getClass(), "cloneInternal", Object.class, Map.class);
+    // the plans of sub classes deciding which classes are immutable by themselves are their own
+    private final boolean sharesPlans = !overrides(getClass(), "considerImmutable", Class.class)
+            && !overrides(getClass(), "getImmutableAnnotation");
+    // the initial configuration of sub classes registering by themselves is their own
+    private final boolean defaultInit = !overrides(getClass(), "registerKnownJdkImmutableClasses")
+            && !overrides(getClass(), "registerKnownConstants") && !overrides(getClass(), "registerFastCloners")
+            && !overrides(getClass(), "registerDiscoveredFastCloners")
+            && !overrides(getClass(), "registerInaccessibleClassToBeFastCloned", String.class, IFastCloner.class);
+
+    /**
+     * @return true if c or one of its super classes up to Cloner declares the method
+     */
+    private static boolean overrides(Class<?> c, String name, Class<?>... parameterTypes) {
+        for (; c != Cloner.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of classes held by each of the per class caches of this cloner: their cloners, whether
+     * they are immutable and their fields. Classes which have been unloaded are not counted.
+     */
+    public Map<String, Integer> getCacheSizes() {
+        final Map<String, Integer> sizes = new LinkedHashMap<>();
+        final Setup s = setup;
+        sizes.put("cloners", s.cloners.size());
+        sizes.put("immutables", s.plans.immutables.size());
+        sizes.put("fields", fieldsCache.size());
+        sizes.put("graphSizes", graphSizes.size());
+        return sizes;
+    }
 
     @SuppressWarnings("unchecked")
     protected <T> T cloneInternal(T o, Map<Object, Object> clones) {
         if (o == null) return null;
-        if (o == this) return null;
+        return cloneWith(o, setupOf(clones).cloners.get(o.getClass()), clones);
+    }
 
+    /**
+     * @return the setup of the deep clone using clones, or the current one
+     */
+    private Setup setupOf(Map<Object, Object> clones) {
+        return clones instanceof ClonesMap ? ((ClonesMap) clones).setup : setup;
+    }
+
+    /**
+     * clones o with the cloner already known for its class, i.e. from the inline cache of a field
+     */
+    private <T> T cloneWith(T o, ClassCloner cloner, Map<Object, Object> clones) {
+        // immutables and ignored instances are never registered in the clones, so they skip the lookup
+        if (cloner == IGNORE_CLONER) return o;
+        if (o == this) return null;
         // Prevent cycles, expensive but necessary
         if (clones != null) {
-            T clone = (T) clones.get(o);
+            T clone = lookupClone(o, clones);
             if (clone != null) {
                 return clone;
             }
         }
+        return dispatch(o, cloner, clones);
+    }
 
-        Class<?> aClass = o.getClass();
-        IDeepCloner cloner = cloners.get(aClass);
-        if (cloner == null) {
-            cloner = findDeepCloner(aClass);
-            cloners.put(aClass, cloner);
+    @SuppressWarnings("unchecked")
+    private <T> T lookupClone(T o, Map<Object, Object> clones) {
+        T clone = (T) clones.get(o);
+        if (clone == UNDER_CONSTRUCTION) {
+            throw new CloningException(String.format("Cyclic reference to instance of class [%s] which can only be cloned through its constructor", o.getClass().getName()));
         }
+        return clone;
+    }
+
+    private <T> T dispatch(T o, ClassCloner cloner, Map<Object, Object> clones) {
         if (cloner == IGNORE_CLONER) {
             return o;
         } else if (cloner == NULL_CLONER) {
             return null;
         }
-        return cloner.deepClone(o, clones);
-    }
-
-    private IDeepCloner findDeepCloner(Class<?> clz) {
-        if (Enum.class.isAssignableFrom(clz)) {
-            return IGNORE_CLONER;
-        } else if (IFreezable.class.isAssignableFrom(clz)) {
-            return new IFreezableCloner(clz);
-        } else if (nullInstead.contains(clz)) {
-            return NULL_CLONER;
-        } else if (ignored.contains(clz)) {
-            return IGNORE_CLONER;
-        } else if (isImmutable(clz)) {
-            return IGNORE_CLONER;
-        } else if (clz.isArray()) {
-            return new CloneArrayCloner(clz);
+        if (clones instanceof ClonesMap && ((ClonesMap) clones).setup.iterativeTraversal && cloner instanceof DeferredCloner) {
+            final ClonesMap clonesMap = (ClonesMap) clones;
+            if (clonesMap.depth >= MAX_RECURSIVE_DEPTH) {
+                @SuppressWarnings("unchecked") T clone = (T) defer((DeferredCloner) cloner, o, clonesMap);
+                return clone;
+            }
+            clonesMap.depth++;
+            try {
+                return cloner.deepClone(this, o, clones);
+            } finally {
+                clonesMap.depth--;
+            }
+        }
+        return cloner.deepClone(this, o, clones);
+    }
+
+    // how deep the iterative traversal clones recursively before it puts the clones on its work list
+    private static final int MAX_RECURSIVE_DEPTH = 64;
+
+    /**
+     * creates the clone of o, leaving its references to be cloned once it is taken off the work list
+     */
+    private Object defer(DeferredCloner cloner, Object o, ClonesMap clones) {
+        final Object clone = cloner.newClone(this, o, clones);
+        clones.pending.push(cloner);
+        clones.pending.push(o);
+        clones.pending.push(clone);
+        return clone;
+    }
+
+    /**
+     * @return the current size of the work list of the iterative traversal, or -1 if the traversal is recursive
+     */
+    private int pendingMark(Map<Object, Object> clones) {
+        return clones instanceof ClonesMap && ((ClonesMap) clones).setup.iterativeTraversal ? ((ClonesMap) clones).pending.size() : -1;
+    }
+
+    /**
+     * clones the references of the clones added to the work list since mark, along with those added meanwhile
+     */
+    private void complete(Map<Object, Object> clones, int mark) {
+        if (mark < 0) return;
+        final ArrayDeque<Object> pending = ((ClonesMap) clones).pending;
+        while (pending.size() > mark) {
+            final Object clone = pending.pop();
+            final Object o = pending.pop();
+            ((DeferredCloner) pending.pop()).fill(this, o, clone, clones);
+        }
+    }
+
+    // the fewest elements per parallel chunk
+    private static final int MIN_CHUNK = 256;
+
+    /**
+     * @return true if size elements are cloned in parallel within the deep clone using clones
+     */
+    private boolean clonesInParallel(int size, Map<Object, Object> clones) {
+        if (!(clones instanceof ClonesMap)) return false;
+        final ClonesMap m = (ClonesMap) clones;
+        final int threshold = m.setup.config.parallelThreshold;
+        return threshold > 0 && size >= threshold && size >= 2 * MIN_CHUNK && m.setup.dumpCloned == null
+                && (m.graphSize == null || !m.graphSize.sharedAcrossChunks) && poolOf().getParallelism() > 1;
+    }
+
+    private static ForkJoinPool poolOf() {
+        final ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * clones the values in chunks, each of them tracking its clones in a map of its own on top of the clones. The
+     * chunk maps are then merged into the clones, unless two chunks cloned the same object: the values are then cloned
+     * again, sequentially, so that the object has a single clone.
+     *
+     * @return the complete clones of the values, in order
+     */
+    private Object[] cloneInParallel(final Object[] values, final ClonesMap clones) {
+        final int n = values.length;
+        final ForkJoinPool pool = poolOf();
+        final int chunks = Math.min(pool.getParallelism() * 4, n / MIN_CHUNK);
+        final Object[] result = new Object[n];
+        final ClonesMap[] maps = new ClonesMap[chunks];
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            final int chunk = c;
+            final int from = (int) ((long) n * c / chunks);
+            final int to = (int) ((long) n * (c + 1) / chunks);
+            tasks.add(ForkJoinTask.adapt(() -> {
+                final ClonesMap m = new ClonesMap(clones, to - from);
+                for (int i = from; i < to; i++) {
+                    result[i] = cloneComplete(values[i], m);
+                }
+                maps[chunk] = m;
+            }));
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
         } else {
-            final IFastCloner fastCloner = fastCloners.get(clz);
-            if (fastCloner != null) {
-                return new FastClonerCloner(fastCloner);
-            } else {
-                for (final Class<?> iClz : ignoredInstanceOf) {
-                    if (iClz.isAssignableFrom(clz)) {
-                        return IGNORE_CLONER;
-                    }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        if (clones.tree) return result;
+        final int mark = clones.added();
+        for (final ClonesMap m : maps) {
+            if (!m.putAddedInto(clones)) {
+                clones.truncate(mark);
+                if (clones.graphSize != null) clones.graphSize.sharedAcrossChunks = true;
+                for (int i = 0; i < n; i++) {
+                    result[i] = cloneComplete(values[i], clones);
                 }
+                return result;
             }
         }
-        return new CloneObjectCloner(clz);
+        return result;
     }
 
-    private class CloneArrayCloner implements IDeepCloner {
+    /**
+     * clones o like {@link #cloneInternal}, but never leaves anything reachable from the clone on the work list of
+     * the iterative traversal
+     */
+    private <T> T cloneComplete(T o, Map<Object, Object> clones) {
+        final int mark = pendingMark(clones);
+        final T clone = cloneInternal(o, clones);
+        complete(clones, mark);
+        return clone;
+    }
 
-        private final boolean primitive;
-        private final boolean immutable;
-        private final Class<?> componentType;
+    /**
+     * Clones the instances of a single class.
+     *
+     * <p>Unlike {@link IDeepCloner}s, these don't refer to the {@link Cloner} they clone for, which is passed to each
+     * call instead: they are stored within their class, so a reference to the cloner would keep it alive for as long
+     * as the class lives.
+     */
+    private interface ClassCloner {
+        <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones);
+    }
 
-        CloneArrayCloner(Class<?> clz) {
-            primitive = clz.getComponentType().isPrimitive();
-            immutable = isImmutable(clz.getComponentType());
-            componentType = clz.getComponentType();
+    /**
+     * A {@link ClassCloner} creating the clone before cloning what it refers to, so that the iterative traversal can
+     * clone the references later on rather than recursively. A class rather than an interface, as instanceof checks
+     * against it are cheaper.
+     */
+    private static abstract class DeferredCloner implements ClassCloner {
+        /**
+         * @return the clone of o, registered in the clones, whose references are not cloned yet
+         */
+        abstract Object newClone(Cloner cloner, Object o, Map<Object, Object> clones);
+
+        /**
+         * clones the references of o into its clone
+         */
+        abstract void fill(Cloner cloner, Object o, Object clone, Map<Object, Object> clones);
+
+        @SuppressWarnings("unchecked")
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
+            final Object clone = newClone(cloner, o, clones);
+            fill(cloner, o, clone, clones);
+            return (T) clone;
         }
+    }
 
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
+    /**
+     * Clones arrays through their intrinsic clone(), then replaces in place the elements which are to be cloned, so
+     * that arrays of primitives and of immutables are a single bulk copy and no element goes through reflection.
+     */
+    private static final class CloneArrayCloner extends DeferredCloner {
+
+        // true if the clones are plain copies, i.e. arrays of primitives or immutables
+        private final boolean flat;
+        private final UnaryOperator<Object> copier;
+
+        CloneArrayCloner(Plans plans, Class<?> clz) {
+            final Class<?> componentType = clz.getComponentType();
+            flat = componentType.isPrimitive() || plans.isShared(componentType);
+            copier = copierOf(componentType);
+        }
+
+        /**
+         * @return the clone() of arrays of componentType, which the JVM intrinsifies into an allocation and a copy
+         */
+        private static UnaryOperator<Object> copierOf(Class<?> componentType) {
+            if (!componentType.isPrimitive()) return a -> ((Object[]) a).clone();
+            if (componentType == int.class) return a -> ((int[]) a).clone();
+            if (componentType == long.class) return a -> ((long[]) a).clone();
+            if (componentType == double.class) return a -> ((double[]) a).clone();
+            if (componentType == byte.class) return a -> ((byte[]) a).clone();
+            if (componentType == char.class) return a -> ((char[]) a).clone();
+            if (componentType == boolean.class) return a -> ((boolean[]) a).clone();
+            if (componentType == float.class) return a -> ((float[]) a).clone();
+            return a -> ((short[]) a).clone();
+        }
+
+        public Object newClone(Cloner cloner, Object o, Map<Object, Object> clones) {
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
             if (dumpCloned != null) {
                 dumpCloned.startCloning(o.getClass());
             }
-            int length = Array.getLength(o);
-            @SuppressWarnings("unchecked") T newInstance = (T) Array.newInstance(componentType, length);
+            // the elements are copied, which is all shallow clones and flat arrays need
+            Object newInstance = copier.apply(o);
             if (clones != null) {
                 clones.put(o, newInstance);
             }
-            if (primitive || immutable) {
-                System.arraycopy(o, 0, newInstance, 0, length);
-            } else {
-                if (clones == null) {
-                    for (int i = 0; i < length; i++) {
-                        Array.set(newInstance, i, Array.get(o, i));
+            return newInstance;
+        }
+
+        public void fill(Cloner cloner, Object o, Object newInstance, Map<Object, Object> clones) {
+            if (flat || clones == null) return;
+            final Object[] src = (Object[]) o;
+            final Object[] dst = (Object[]) newInstance;
+            if (cloner.clonesInParallel(src.length, clones)) {
+                final Object[] cloned = cloner.cloneInParallel(src, (ClonesMap) clones);
+                System.arraycopy(cloned, 0, dst, 0, cloned.length);
+                return;
+            }
+            if (!cloner.inlineCaches) {
+                for (int i = 0; i < src.length; i++) {
+                    final Object e = src[i];
+                    if (e != null) {
+                        final Object clone = cloner.cloneInternal(e, clones);
+                        if (clone != e) dst[i] = clone;
                     }
-                } else {
-                    for (int i = 0; i < length; i++) {
-                        Array.set(newInstance, i, cloneInternal(Array.get(o, i), clones));
+                }
+                return;
+            }
+            final Setup setup = cloner.setupOf(clones);
+            // elements are often of a single class, so the cloner of the last one saves most lookups
+            Class<?> lastClass = null;
+            ClassCloner last = null;
+            for (int i = 0; i < src.length; i++) {
+                final Object e = src[i];
+                if (e == null) continue;
+                final Class<?> c = e.getClass();
+                if (c != lastClass) {
+                    lastClass = c;
+                    last = setup.cloners.get(c);
+                }
+                if (last == IGNORE_CLONER) continue;
+                final Object clone;
+                if (last instanceof CloneArrayCloner && ((CloneArrayCloner) last).flat && setup.dumpCloned == null) {
+                    // i.e. the rows of int[][] or String[][], copied without the dispatch
+                    final Object row = clones.get(e);
+                    if (row != null) {
+                        clone = row;
+                    } else {
+                        clone = ((CloneArrayCloner) last).copier.apply(e);
+                        clones.put(e, clone);
                     }
+                } else {
+                    clone = cloner.cloneWith(e, last, clones);
                 }
+                if (clone != e) dst[i] = clone;
             }
-            return newInstance;
         }
     }
 
-    private class FastClonerCloner implements IDeepCloner {
+    /**
+     * registered in the clones while the constructor arguments of an instance are cloned, as its clone can't exist
+     * before
+     */
+    private static final Object UNDER_CONSTRUCTION = new Object();
+
+    /**
+     * @see ITypedFastCloner#markUnderConstruction
+     */
+    static void markUnderConstruction(final Map<Object, Object> clones, final Object o) {
+        clones.put(o, UNDER_CONSTRUCTION);
+    }
+
+    private static final MethodHandle CLONE_COMPONENT;
+
+    static {
+        try {
+            CLONE_COMPONENT = MethodHandles.lookup().findVirtual(RecordCloner.class, "cloneComponent",
+                    MethodType.methodType(Object.class, int.class, Cloner.class, Object.class, Object.class, Map.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Clones records by cloning their component fields and passing them to the canonical constructor.
+     *
+     * <p>The reads, the component clones and the constructor call are composed into a single
+     * {@code (Cloner cloner, Object o, Map clones)Object} handle, so no argument array is allocated per clone.
+     */
+    private static final class RecordCloner implements ClassCloner {
+        // the arguments every component value is computed from
+        private static final Class<?>[] CONTEXT = {Cloner.class, Object.class, Map.class};
+
+        private final Field[] fields;
+        private final FieldStrategies[] strategies;
+        private final MethodHandle constructor;
+
+        RecordCloner(Plans plans, Class<?> clz) throws IllegalAccessException, NoSuchMethodException, NoSuchFieldException {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clz, MethodHandles.lookup());
+            final RecordComponent[] components = clz.getRecordComponents();
+            final int n = components.length;
+            final int k = CONTEXT.length;
+            fields = new Field[n];
+            strategies = new FieldStrategies[n];
+            final Class<?>[] types = new Class<?>[n];
+            final MethodHandle[] values = new MethodHandle[n];
+            final MethodHandle cloneComponent = CLONE_COMPONENT.bindTo(this);
+            for (int i = 0; i < n; i++) {
+                final Class<?> type = components[i].getType();
+                types[i] = type;
+                // read the fields rather than calling the accessors, which may be overridden
+                fields[i] = clz.getDeclaredField(components[i].getName());
+                strategies[i] = plans.strategiesFor(fields[i]);
+                final MethodHandle getter = lookup.unreflectGetter(fields[i]);
+                final MethodHandle value; // (Cloner cloner, Object o, Map clones)type
+                if (plans.isFieldNullInsteadBecauseOfAnnotation(fields[i])) {
+                    value = MethodHandles.dropArguments(MethodHandles.zero(type), 0, CONTEXT);
+                } else if (type.isPrimitive()) {
+                    value = MethodHandles.dropArguments(MethodHandles.dropArguments(
+                            getter.asType(MethodType.methodType(type, Object.class)), 1, Map.class), 0, Cloner.class);
+                } else {
+                    // cloneComponent(i, cloner, o, getter(o), clones)
+                    final MethodHandle clone = MethodHandles.insertArguments(cloneComponent, 0, i);
+                    value = MethodHandles.permuteArguments(
+                            MethodHandles.collectArguments(clone, 2, getter.asType(MethodType.methodType(Object.class, Object.class))),
+                            MethodType.methodType(Object.class, CONTEXT), 0, 1, 1, 2)
+                            .asType(MethodType.methodType(type, CONTEXT));
+                }
+                values[i] = value;
+            }
+            MethodHandle h = lookup.findConstructor(clz, MethodType.methodType(void.class, types))
+                    .asType(MethodType.methodType(Object.class, types));
+            if (n == 0) {
+                h = MethodHandles.dropArguments(h, 0, CONTEXT);
+            }
+            // replace the arguments by their value handles from the last one, merging the context arguments
+            for (int i = n - 1; i >= 0; i--) {
+                h = MethodHandles.collectArguments(h, i, values[i]);
+                if (i < n - 1) {
+                    final int[] reorder = new int[i + 2 * k];
+                    for (int j = 0; j < i + k; j++) reorder[j] = j;
+                    for (int j = 0; j < k; j++) reorder[i + k + j] = i + j;
+                    final Class<?>[] params = Arrays.copyOf(types, i + k);
+                    System.arraycopy(CONTEXT, 0, params, i, k);
+                    h = MethodHandles.permuteArguments(h, MethodType.methodType(Object.class, params), reorder);
+                }
+            }
+            constructor = h;
+        }
+
+        /**
+         * @return the clone of the value of the i-th component of o
+         */
+        private Object cloneComponent(int i, Cloner cloner, Object o, Object fieldObject, Map<Object, Object> clones) {
+            if (clones == null) return fieldObject;
+            // the constructor may look into the components, so they must be complete
+            final int mark = cloner.pendingMark(clones);
+            final Object fieldObjectClone = cloner.applyCloningStrategy(clones, o, fieldObject, strategies[i]);
+            cloner.complete(clones, mark);
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
+            if (dumpCloned != null && fieldObjectClone != fieldObject) {
+                dumpCloned.cloning(fields[i], o.getClass());
+            }
+            return fieldObjectClone;
+        }
+
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
+            if (dumpCloned != null) {
+                dumpCloned.startCloning(o.getClass());
+            }
+            if (clones != null) {
+                markUnderConstruction(clones, o);
+            }
+            try {
+                @SuppressWarnings("unchecked") T clone = (T) constructor.invokeExact(cloner, (Object) o, clones);
+                if (clones != null) {
+                    clones.put(o, clone);
+                }
+                return clone;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new CloningException(String.format("Failed to clone instance of class [%s]", o.getClass().getName()), t);
+            }
+        }
+    }
+
+    // fast cloners which only place the clones they get, unlike i.e. hash based ones which need their hash codes
+    private static final Set<Class<?>> PLACING_FAST_CLONERS = Set.of(FastClonerArrayList.class, FastClonerArrayListSubList.class,
+            FastClonerLinkedList.class, FastClonerListOf12.class, FastClonerConcurrentLinkedQueue.class, FastClonerEnumMap.class,
+            FastClonerOptional.class);
+
+    private static final class FastClonerCloner implements ClassCloner {
         private final IFastCloner fastCloner;
-        private final IDeepCloner cloneInternal;
+        // true if the fast cloner may get clones whose references are not cloned yet
+        private final boolean placesClones;
 
         FastClonerCloner(IFastCloner fastCloner) {
             this.fastCloner = fastCloner;
-            this.cloneInternal = deepCloner;
+            this.placesClones = PLACING_FAST_CLONERS.contains(fastCloner.getClass());
         }
 
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
-            @SuppressWarnings("unchecked") T clone = (T) fastCloner.clone(o, cloneInternal, clones);
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
+            @SuppressWarnings("unchecked") T clone = (T) fastCloner.clone(o, placesClones ? cloner.deepCloner : cloner.completeDeepCloner, clones);
             if (clones != null) clones.put(o, clone);
             return clone;
         }
     }
 
-    private static final IDeepCloner IGNORE_CLONER = new IgnoreClassCloner();
-    private static final IDeepCloner NULL_CLONER = new NullClassCloner();
+    private static final ClassCloner IGNORE_CLONER = new IgnoreClassCloner();
+    private static final ClassCloner NULL_CLONER = new NullClassCloner();
 
-    private static class IgnoreClassCloner implements IDeepCloner {
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
+    private static class IgnoreClassCloner implements ClassCloner {
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
             throw new CloningException("Don't call this directly");
         }
     }
 
-    private static class NullClassCloner implements IDeepCloner {
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
+    private static class NullClassCloner implements ClassCloner {
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
             throw new CloningException("Don't call this directly");
         }
     }
 
-    private class IFreezableCloner implements IDeepCloner {
-        IDeepCloner cloner;
+    private static final class IFreezableCloner implements ClassCloner {
+        private final ClassCloner plan;
 
-        public IFreezableCloner(Class<?> clz) {
-            cloner = new CloneObjectCloner(clz);
+        IFreezableCloner(Plans plans, Class<?> clz) {
+            plan = new CloneObjectCloner(plans, clz);
         }
 
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
             if (o instanceof IFreezable) {
                 IFreezable f = (IFreezable) o;
                 if (f.isFrozen()) return o;
             }
-            return cloner.deepClone(o, clones);
+            return plan.deepClone(cloner, o, clones);
         }
     }
 
     private static final Field[] EMPTY_FIELD_ARRAY = new Field[0];
 
-    private class CloneObjectCloner implements IDeepCloner {
+    private static final FieldOp[] EMPTY_FIELD_OP_ARRAY = new FieldOp[0];
 
-        private final Field[] fields;
-        private final Object[] cookies;
-        private final boolean[] shouldClone;
-        private final int numFields;
-        private final ObjectInstantiator<?> instantiator;
+    /**
+     * A single step of a {@link CloneObjectCloner} plan, specialized for its field when the plan is built.
+     */
+    private abstract static class FieldOp {
+        final Field field;
+
+        FieldOp(Field field) {
+            this.field = field;
+        }
 
-        CloneObjectCloner(Class<?> clz) {
+        abstract void apply(Cloner cloner, Object o, Object clone, Map<Object, Object> clones) throws IllegalAccessException;
+    }
+
+    /**
+     * copies the field as is: primitives, shared immutables and fields which are not to be cloned
+     */
+    private static final class CopyFieldOp extends FieldOp {
+        private final Fields.Copier copier;
+
+        CopyFieldOp(Field field, Object cookie) {
+            super(field);
+            copier = Fields.ACCESSOR.getCopier(field, cookie);
+        }
+
+        void apply(Cloner cloner, Object o, Object clone, Map<Object, Object> clones) throws IllegalAccessException {
+            copier.copy(o, clone);
+        }
+    }
+
+    /**
+     * sets the field of the clone to its default value, for fields excluded from the plan
+     */
+    private static final class ResetFieldOp extends FieldOp {
+        private final Fields.Setter setter;
+        private final Object value;
+
+        ResetFieldOp(Field field, Object cookie) {
+            super(field);
+            setter = Fields.ACCESSOR.getSetter(field, cookie);
+            Class<?> type = field.getType();
+            value = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+
+        void apply(Cloner cloner, Object o, Object clone, Map<Object, Object> clones) throws IllegalAccessException {
+            setter.set(clone, value);
+        }
+    }
+
+    /**
+     * deep clones the field value
+     */
+    private static final class DeepCloneFieldOp extends FieldOp {
+        private final Fields.Getter getter;
+        private final Fields.Setter setter;
+        // true if the clone already holds the original value, which then only needs to be replaced by its clone
+        private final boolean copied;
+        // null if no cloning strategy can apply to the field
+        private final FieldStrategies strategies;
+        private InlineCache cache = InlineCache.EMPTY;
+        private int hits;
+        // where this op sits in its plan, to be replaced by a respecialized op
+        private FieldOp[] ops;
+        private int index;
+        private boolean respecialized;
+
+        DeepCloneFieldOp(Field field, Object cookie, boolean copied, FieldStrategies strategies) {
+            super(field);
+            getter = Fields.ACCESSOR.getGetter(field, cookie);
+            setter = Fields.ACCESSOR.getSetter(field, cookie);
+            this.copied = copied;
+            this.strategies = strategies;
+        }
+
+        void place(FieldOp[] ops, int index) {
+            this.ops = ops;
+            this.index = index;
+        }
+
+        void apply(Cloner cloner, Object o, Object clone, Map<Object, Object> clones) throws IllegalAccessException {
+            Object fieldObject = getter.get(o);
+            Object fieldObjectClone = cloner.inlineCaches && strategies == null && fieldObject != null
+                    ? cloner.cloneWith(fieldObject, clonerFor(cloner, fieldObject.getClass(), clones), clones)
+                    : cloner.applyCloningStrategy(clones, o, fieldObject, strategies);
+            if (!copied || fieldObjectClone != fieldObject) {
+                setter.set(clone, fieldObjectClone);
+            }
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
+            if (dumpCloned != null && fieldObjectClone != fieldObject) {
+                dumpCloned.cloning(field, o.getClass());
+            }
+        }
+
+        /**
+         * @return the cloner of c, skipping the global lookup for the (up to) two classes seen in this field
+         */
+        private ClassCloner clonerFor(Cloner cloner, Class<?> c, Map<Object, Object> clones) {
+            final InlineCache ic = cache;
+            if (ic.class1 == c) {
+                if (++hits == RESPECIALIZE_AFTER && ic.class2 == null && ic.cloner1 == IGNORE_CLONER) {
+                    respecialize(c);
+                }
+                return ic.cloner1;
+            }
+            if (ic.class2 == c) return ic.cloner2;
+            final ClassCloner classCloner = cloner.setupOf(clones).cloners.get(c);
+            if (ic == InlineCache.MEGAMORPHIC || !outlives(c, field.getDeclaringClass())) {
+                // classes which may be unloaded before the class of the field are not pinned by its plan
+                return classCloner;
+            }
+            if (ic == InlineCache.EMPTY) {
+                cache = new InlineCache(c, classCloner, null, null);
+            } else {
+                cache = ic.class2 == null ? new InlineCache(ic.class1, ic.cloner1, c, classCloner) : InlineCache.MEGAMORPHIC;
+            }
+            return classCloner;
+        }
+
+        /**
+         * replaces this op within its plan by one sharing values of class c without any cloner dispatch
+         */
+        private void respecialize(Class<?> c) {
+            if (ops != null && !respecialized) {
+                respecialized = true;
+                ops[index] = new SharedClassFieldOp(this, c);
+            }
+        }
+
+        /**
+         * puts this op back into its plan, after a value of another class showed up
+         */
+        void deoptimize() {
+            if (ops != null) {
+                ops[index] = this;
+            }
+        }
+    }
+
+    /**
+     * @return true if the class loader of c is the one of owner or one of its parents, so that c can't be unloaded
+     * before owner
+     */
+    private static boolean outlives(Class<?> c, Class<?> owner) {
+        final ClassLoader loader = c.getClassLoader();
+        if (loader == null) return true;
+        for (ClassLoader l = owner.getClassLoader(); l != null; l = l.getParent()) {
+            if (l == loader) return true;
+        }
+        return false;
+    }
+
+    // monomorphic hits of a field holding values of an immutable class after which its op is respecialized
+    private static final int RESPECIALIZE_AFTER = 1000;
+
+    /**
+     * the classes last seen in a field and their cloners
+     */
+    private static final class InlineCache {
+        static final InlineCache EMPTY = new InlineCache(null, null, null, null);
+        static final InlineCache MEGAMORPHIC = new InlineCache(null, null, null, null);
+
+        final Class<?> class1;
+        final ClassCloner cloner1;
+        final Class<?> class2;
+        final ClassCloner cloner2;
+
+        InlineCache(Class<?> class1, ClassCloner cloner1, Class<?> class2, ClassCloner cloner2) {
+            this.class1 = class1;
+            this.cloner1 = cloner1;
+            this.class2 = class2;
+            this.cloner2 = cloner2;
+        }
+    }
+
+    /**
+     * a {@link DeepCloneFieldOp} respecialized for a field which only held null or values of an immutable class so
+     * far: such values are shared as is, anything else deoptimizes back to the generic op
+     */
+    private static final class SharedClassFieldOp extends FieldOp {
+        private final DeepCloneFieldOp generic;
+        private final Class<?> type;
+
+        SharedClassFieldOp(DeepCloneFieldOp generic, Class<?> type) {
+            super(generic.field);
+            this.generic = generic;
+            this.type = type;
+        }
+
+        void apply(Cloner cloner, Object o, Object clone, Map<Object, Object> clones) throws IllegalAccessException {
+            if (!cloner.inlineCaches) {
+                // plans are shared with cloners which don't override cloneInternal, which this one must go through
+                generic.apply(cloner, o, clone, clones);
+                return;
+            }
+            if (generic.strategies == null) {
+                Object fieldObject = generic.getter.get(o);
+                if (fieldObject == null || fieldObject.getClass() == type) {
+                    if (!generic.copied) {
+                        generic.setter.set(clone, fieldObject);
+                    }
+                    return;
+                }
+            }
+            generic.deoptimize();
+            generic.apply(cloner, o, clone, clones);
+        }
+    }
+
+    /**
+     * applies the ops in order, reporting failures in the context of the field at hand
+     */
+    private static void apply(FieldOp[] ops, Cloner cloner, Object o, Object clone, Map<Object, Object> clones) {
+        int i = 0;
+        try {
+            for (; i < ops.length; i++) {
+                ops[i].apply(cloner, o, clone, clones);
+            }
+        } catch (SecurityException | IllegalArgumentException | IllegalAccessException e) {
+            throw Fields.withContext(ops[i].field, e);
+        } catch (CloningException e) {
+            throw Fields.withContext(ops[i].field, e.getCause());
+        }
+    }
+
+    private static final class CloneObjectCloner extends DeferredCloner {
+
+        private final Class<?> clz;
+        // all the fields of the plan, including those copied by the block copier
+        private final Field[] planFields;
+        private final boolean[] planShouldClone;
+        // the cloning strategies of the plan fields, null where none can apply
+        private final FieldStrategies[] planStrategies;
+        private final Fields.BlockCopier blockCopier;
+        // the fields left out of the plan, set to their default value in the clones
+        private final Field[] excluded;
+        // the ops for the fields not copied by the block copier
+        private final FieldOp[] deepOps;
+        private final FieldOp[] shallowOps;
+        private final ObjectInstantiator<?> instantiator;
+        // resets the excluded fields of new instances which the instantiator didn't leave blank, null if none
+        private final FieldOp[] resetOps;
+        private boolean allFieldsCloned = true;
+        // Object.clone() tier: the shallow copy, then the ops resetting the excluded fields and deep cloning the rest
+        private final MethodHandle objectClone;
+        private final FieldOp[] objectCloneDeepOps;
+        private final FieldOp[] objectCloneShallowOps;
+
+        CloneObjectCloner(Plans plans, Class<?> clz) {
+            this.clz = clz;
             List<Field> l = new ArrayList<>();
             List<Boolean> shouldCloneList = new ArrayList<>();
+            List<Field> excluded = new ArrayList<>();
             Class<?> sc = clz;
             do {
                 Field[] fs = sc.getDeclaredFields();
@@ -571,86 +2095,427 @@ public class Cloner {
                     int modifiers = f.getModifiers();
                     boolean isStatic = Modifier.isStatic(modifiers);
                     if (!isStatic) {
-                        if (!(nullTransient && Modifier.isTransient(modifiers)) && !isFieldNullInsteadBecauseOfAnnotation(f)) {
+                        if (!(plans.config.nullTransient && Modifier.isTransient(modifiers)) && !plans.isFieldNullInsteadBecauseOfAnnotation(f)) {
                             l.add(f);
-                            boolean shouldClone = (cloneSynthetics || !f.isSynthetic()) && (cloneAnonymousParent || !isAnonymousParent(f));
+                            boolean shouldClone = (plans.config.cloneSynthetics || !f.isSynthetic()) && (plans.config.cloneAnonymousParent || !isAnonymousParent(f));
                             shouldCloneList.add(shouldClone);
+                            allFieldsCloned &= shouldClone;
+                        } else {
+                            allFieldsCloned = false;
+                            excluded.add(f);
                         }
                     }
                 }
             } while ((sc = sc.getSuperclass()) != Object.class && sc != null);
-            fields = l.toArray(EMPTY_FIELD_ARRAY);
-            numFields = fields.length;
-            shouldClone = new boolean[numFields];
-            cookies = new Object[numFields];
-            for (int i = 0; i < numFields; i++) {
-                shouldClone[i] = shouldCloneList.get(i);
-                cookies[i] = Fields.ACCESSOR.getCookie(fields[i]);
+            planFields = l.toArray(EMPTY_FIELD_ARRAY);
+            this.excluded = excluded.toArray(EMPTY_FIELD_ARRAY);
+            planShouldClone = new boolean[planFields.length];
+            planStrategies = new FieldStrategies[planFields.length];
+            Object[] cookies = new Object[planFields.length];
+            List<Field> primitives = new ArrayList<>();
+            for (int i = 0; i < planFields.length; i++) {
+                planShouldClone[i] = shouldCloneList.get(i);
+                Field f = planFields[i];
+                if (planShouldClone[i] && !f.getType().isPrimitive()) {
+                    planStrategies[i] = plans.strategiesFor(f);
+                }
+                cookies[i] = Fields.ACCESSOR.getCookie(f);
+                if (f.getType().isPrimitive() && !Modifier.isVolatile(f.getModifiers())) {
+                    primitives.add(f);
+                }
+            }
+
+            // let the accessor copy the primitives in one go if it can
+            blockCopier = primitives.isEmpty() ? null : Fields.ACCESSOR.getBlockCopier(primitives);
+            List<FieldOp> deep = new ArrayList<>();
+            List<FieldOp> shallow = new ArrayList<>();
+            for (int i = 0; i < planFields.length; i++) {
+                Field f = planFields[i];
+                if (blockCopier != null && primitives.contains(f)) continue;
+                CopyFieldOp copy = new CopyFieldOp(f, cookies[i]);
+                shallow.add(copy);
+                deep.add(planShouldClone[i] ? deepOp(plans, f, cookies[i], planStrategies[i], false, copy) : copy);
+            }
+            deepOps = place(deep.toArray(EMPTY_FIELD_OP_ARRAY));
+            shallowOps = shallow.toArray(EMPTY_FIELD_OP_ARRAY);
+            instantiator = plans.instantiatorOf(clz);
+            resetOps = excluded.isEmpty() || plans.instantiatesBlank(clz) ? null : resetOps(excluded);
+
+            objectClone = plans.usesObjectClone() ? objectCloneOf(clz) : null;
+            if (objectClone != null) {
+                objectCloneShallowOps = resetOps(excluded);
+                List<FieldOp> ops = new ArrayList<>(Arrays.asList(objectCloneShallowOps));
+                for (int i = 0; i < planFields.length; i++) {
+                    // fields the clone shares with o anyway are left as Object.clone() copied them
+                    FieldOp op = planShouldClone[i] ? deepOp(plans, planFields[i], cookies[i], planStrategies[i], true, null) : null;
+                    if (op != null) {
+                        ops.add(op);
+                    }
+                }
+                objectCloneDeepOps = place(ops.toArray(EMPTY_FIELD_OP_ARRAY));
+            } else {
+                objectCloneDeepOps = objectCloneShallowOps = null;
             }
-            instantiator = instantiationStrategy.getInstantiatorOf(clz);
         }
 
-        private boolean isFieldNullInsteadBecauseOfAnnotation(Field f) {
-            if (!nullInsteadFieldAnnotations.isEmpty()) {
-                for (Annotation annotation : f.getAnnotations()) {
-                    boolean isAnnotatedWithNullInsteadAnnotation =
-                            nullInsteadFieldAnnotations.contains(annotation.annotationType());
-                    if (isAnnotatedWithNullInsteadAnnotation) {
-                        return true;
+        /**
+         * @param tier how the plan fields are accessed, null if through the ops of this plan
+         * @return what happens to each field, as {@link Cloner#explain} tells
+         */
+        List<ClonePlan.FieldPlan> explain(Plans plans, String tier) {
+            List<ClonePlan.FieldPlan> l = new ArrayList<>();
+            for (int i = 0; i < planFields.length; i++) {
+                Field f = planFields[i];
+                Class<?> type = f.getType();
+                FieldStrategies strategies = planStrategies[i];
+                ClonePlan.Action action = ClonePlan.Action.COPY;
+                ClonePlan.Reason reason;
+                if (type.isPrimitive()) {
+                    reason = ClonePlan.Reason.PRIMITIVE;
+                } else if (!planShouldClone[i]) {
+                    reason = !plans.config.cloneSynthetics && f.isSynthetic() ? ClonePlan.Reason.SYNTHETIC : ClonePlan.Reason.ANONYMOUS_PARENT;
+                } else if (strategies == null) {
+                    boolean shared = plans.isShared(type);
+                    action = shared ? ClonePlan.Action.COPY : ClonePlan.Action.DEEP_CLONE;
+                    reason = shared ? ClonePlan.Reason.SHARED_TYPE : ClonePlan.Reason.MUTABLE_TYPE;
+                } else {
+                    reason = ClonePlan.Reason.STRATEGY;
+                    if (!strategies.alwaysSame()) {
+                        action = strategies.alwaysNull() ? ClonePlan.Action.NULL : ClonePlan.Action.DEEP_CLONE;
+                    }
+                }
+                String accessor = tier;
+                if (accessor == null) {
+                    if (objectClone != null && action == ClonePlan.Action.COPY) {
+                        accessor = "object clone";
+                    } else if (objectClone == null && blockCopier != null && type.isPrimitive() && !Modifier.isVolatile(f.getModifiers())) {
+                        accessor = "block copy";
+                    } else {
+                        accessor = Fields.ACCESSOR.getTier(f, Fields.ACCESSOR.getCookie(f));
                     }
                 }
+                l.add(new ClonePlan.FieldPlan(f, action, reason, accessor));
             }
-            return false;
+            for (Field f : excluded) {
+                ClonePlan.Reason reason = plans.config.nullTransient && Modifier.isTransient(f.getModifiers())
+                        ? ClonePlan.Reason.NULL_TRANSIENT : ClonePlan.Reason.ANNOTATION;
+                // blank instances already hold the default value
+                String accessor = resetOps != null || objectClone != null && tier == null
+                        ? Fields.ACCESSOR.getTier(f, Fields.ACCESSOR.getCookie(f)) : "not accessed";
+                l.add(new ClonePlan.FieldPlan(f, ClonePlan.Action.NULL, reason, accessor));
+            }
+            return l;
         }
 
-        public <T> T deepClone(T o, Map<Object, Object> clones) {
+        private static FieldOp[] resetOps(List<Field> excluded) {
+            FieldOp[] ops = new FieldOp[excluded.size()];
+            for (int i = 0; i < ops.length; i++) {
+                Field f = excluded.get(i);
+                ops[i] = new ResetFieldOp(f, Fields.ACCESSOR.getCookie(f));
+            }
+            return ops;
+        }
+
+        /**
+         * lets the deep clone ops of the plan replace themselves once respecialized
+         */
+        private static FieldOp[] place(FieldOp[] ops) {
+            for (int i = 0; i < ops.length; i++) {
+                if (ops[i] instanceof DeepCloneFieldOp) {
+                    ((DeepCloneFieldOp) ops[i]).place(ops, i);
+                }
+            }
+            return ops;
+        }
+
+        /**
+         * @return the op deep cloning the field f, or copy if the clone shares the field value with the original
+         */
+        private static FieldOp deepOp(Plans plans, Field f, Object cookie, FieldStrategies strategies, boolean copied, FieldOp copy) {
+            Class<?> type = f.getType();
+            if (type.isPrimitive()) return copy;
+            if (strategies == null) {
+                return plans.isShared(type) ? copy : new DeepCloneFieldOp(f, cookie, copied, null);
+            }
+            if (strategies.alwaysSame()) return copy;
+            if (strategies.alwaysNull()) return new ResetFieldOp(f, cookie);
+            return new DeepCloneFieldOp(f, cookie, copied, strategies);
+        }
+
+        public Object newClone(Cloner cloner, Object o, Map<Object, Object> clones) {
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
             if (dumpCloned != null) {
                 dumpCloned.startCloning(o.getClass());
             }
-            @SuppressWarnings("unchecked") T newInstance = (T) instantiator.newInstance();
+            final Object newInstance;
+            if (objectClone != null) {
+                // shallow copies o, the excluded fields are then reset and the rest deep cloned
+                try {
+                    newInstance = objectClone.invokeExact(o);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new CloningException(String.format("Failed to clone instance of class [%s]", o.getClass().getName()), t);
+                }
+            } else {
+                newInstance = instantiator.newInstance();
+                if (resetOps != null) {
+                    apply(resetOps, cloner, o, newInstance, clones);
+                }
+                if (blockCopier != null) {
+                    blockCopier.copy(o, newInstance);
+                }
+            }
             if (clones != null) {
                 clones.put(o, newInstance);
-                for (int i = 0; i < numFields; i++) {
-                    Field field = fields[i];
-                    Object cookie = cookies[i];
-                    boolean shouldCLone = shouldClone[i];
-                    handleWithContext(field, () -> {
-                        if (shouldCLone) {
-                            Object fieldObject = Fields.ACCESSOR.get(field, cookie, o);
-                            Object fieldObjectClone = applyCloningStrategy(clones, o, fieldObject, field);
-                            Fields.ACCESSOR.set(field, cookie, newInstance, fieldObjectClone);
-                            if (dumpCloned != null && fieldObjectClone != fieldObject) {
-                                dumpCloned.cloning(field, o.getClass());
-                            }
-                        } else {
-                            Fields.ACCESSOR.copy(field, cookie, o, newInstance);
-                        }
-                    });
-                    }
+            }
+            return newInstance;
+        }
+
+        public void fill(Cloner cloner, Object o, Object newInstance, Map<Object, Object> clones) {
+            if (objectClone != null) {
+                apply(clones != null ? objectCloneDeepOps : objectCloneShallowOps, cloner, o, newInstance, clones);
             } else {
-                // Shallow clone
-                for (int i = 0; i < numFields; i++) {
-                    Field field = fields[i];
-                    Object cookie = cookies[i];
-                    handleWithContext(field, () -> Fields.ACCESSOR.copy(field, cookie, o, newInstance));
+                // Shallow clone when there are no clones
+                apply(clones != null ? deepOps : shallowOps, cloner, o, newInstance, clones);
+            }
+        }
+
+        /**
+         * @return a {@link CopyConstructorCloner} if the {@link CopyConstructorAgent} added copy constructors to clz and
+         * its super classes and every field is to be deep cloned, null otherwise
+         */
+        ClassCloner copyConstructorCloner(Plans plans) {
+            if (!allFieldsCloned || plans.config.cloningStrategies != null) {
+                return null;
+            }
+            try {
+                return new CopyConstructorCloner(this);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return a {@link CompiledObjectCloner} for this plan, or this cloner if the plan can't be compiled
+         */
+        ClassCloner compile() {
+            try {
+                return new CompiledObjectCloner(this);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // i.e. records, hidden classes or modules which are not open to us
+                return this;
+            }
+        }
+    }
+
+    private static final MethodType OBJECT_CLONE_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * @return {@link Object#clone()} as seen by clz, bypassing any override, or null if clz isn't {@link Cloneable}
+     * or not accessible to us (i.e. classes of modules which are not open)
+     */
+    private static MethodHandle objectCloneOf(Class<?> clz) {
+        // the JVM refuses to clone anything else, with or without a private lookup
+        if (!Cloneable.class.isAssignableFrom(clz)) return null;
+        try {
+            return MethodHandles.privateLookupIn(clz, MethodHandles.lookup())
+                    .findSpecial(Object.class, "clone", MethodType.methodType(Object.class), clz)
+                    .asType(OBJECT_CLONE_TYPE);
+        } catch (IllegalAccessException | NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final MethodHandle CLONE_FIELD;
+
+    static {
+        try {
+            CLONE_FIELD = MethodHandles.lookup().findVirtual(Cloner.class, "cloneField",
+                    ClonerCompiler.CLONE_FIELD_TYPE.dropParameterTypes(0, 1).insertParameterTypes(0, Field.class, FieldStrategies.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * deep clones a single field value of o, target of the compiled cloners.
+     */
+    private Object cloneField(Field field, FieldStrategies strategies, Object o, Object fieldObject, Map<Object, Object> clones) {
+        Object fieldObjectClone = applyCloningStrategy(clones, o, fieldObject, strategies);
+        final IDumpCloned dumpCloned = setupOf(clones).dumpCloned;
+        if (dumpCloned != null && fieldObjectClone != fieldObject) {
+            dumpCloned.cloning(field, o.getClass());
+        }
+        return fieldObjectClone;
+    }
+
+    /**
+     * Clones objects through a {@link ClonerCompiler compiled} plan rather than visiting each field.
+     */
+    private static final class CompiledObjectCloner extends DeferredCloner {
+        private final CloneObjectCloner plan;
+        private final ObjectInstantiator<?> instantiator;
+        private final FieldOp[] resetOps;
+        private final MethodHandle deep;
+        private final MethodHandle shallow;
+
+        CompiledObjectCloner(CloneObjectCloner plan) throws IllegalAccessException {
+            this.plan = plan;
+            instantiator = plan.instantiator;
+            resetOps = plan.resetOps;
+            final MethodHandle[] cloneFields = new MethodHandle[plan.planFields.length];
+            for (int i = 0; i < cloneFields.length; i++) {
+                if (plan.planShouldClone[i]) {
+                    cloneFields[i] = MethodHandles.insertArguments(CLONE_FIELD, 1, plan.planFields[i], plan.planStrategies[i]);
                 }
             }
+            deep = ClonerCompiler.compileDeep(plan.clz, plan.planFields, cloneFields);
+            shallow = ClonerCompiler.compileShallow(plan.clz, plan.planFields);
+        }
+
+        public Object newClone(Cloner cloner, Object o, Map<Object, Object> clones) {
+            final IDumpCloned dumpCloned = cloner.setupOf(clones).dumpCloned;
+            if (dumpCloned != null) {
+                dumpCloned.startCloning(o.getClass());
+            }
+            Object newInstance = instantiator.newInstance();
+            if (resetOps != null) {
+                apply(resetOps, cloner, o, newInstance, clones);
+            }
+            if (clones != null) {
+                clones.put(o, newInstance);
+            }
             return newInstance;
         }
+
+        public void fill(Cloner cloner, Object o, Object newInstance, Map<Object, Object> clones) {
+            try {
+                if (clones != null) {
+                    deep.invokeExact(cloner, o, newInstance, clones);
+                } else {
+                    shallow.invokeExact(o, newInstance);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new CloningException(String.format("Failed to clone instance of class [%s]", o.getClass().getName()), t);
+            }
+        }
+    }
+
+    private static final BiFunction<Object, Object, Object> SHALLOW_FIELD_CLONER = (clone, fieldObject) -> fieldObject;
+
+    /**
+     * Clones objects through the synthetic copy constructor added by the {@link CopyConstructorAgent}.
+     */
+    private static final class CopyConstructorCloner implements ClassCloner {
+        private final CloneObjectCloner plan;
+        private final MethodHandle constructor;
+
+        CopyConstructorCloner(CloneObjectCloner plan) throws ReflectiveOperationException {
+            this.plan = plan;
+            for (Class<?> c = plan.clz; c != Object.class; c = c.getSuperclass()) {
+                if (!c.getDeclaredConstructor(c, BiFunction.class).isSynthetic()) {
+                    throw new NoSuchMethodException("no synthetic copy constructor in " + c.getName());
+                }
+            }
+            constructor = MethodHandles.privateLookupIn(plan.clz, MethodHandles.lookup())
+                    .findConstructor(plan.clz, MethodType.methodType(void.class, plan.clz, BiFunction.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, BiFunction.class));
+        }
+
+        public <T> T deepClone(Cloner cloner, T o, Map<Object, Object> clones) {
+            if (cloner.setupOf(clones).dumpCloned != null) {
+                // the copy constructor can't report the individual fields it clones
+                return plan.deepClone(cloner, o, clones);
+            }
+            final BiFunction<Object, Object, Object> fieldCloner = clones == null ? SHALLOW_FIELD_CLONER : new CopyConstructorFieldCloner(cloner, o, clones);
+            final T clone;
+            try {
+                @SuppressWarnings("unchecked") T c = (T) constructor.invokeExact((Object) o, fieldCloner);
+                clone = c;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new CloningException(String.format("Failed to clone instance of class [%s]", o.getClass().getName()), t);
+            }
+            if (clones != null) {
+                clones.put(o, clone);
+            }
+            return clone;
+        }
     }
 
-    private Object applyCloningStrategy(Map<Object, Object> clones, Object o, Object fieldObject, Field field) {
-        if (cloningStrategies != null) {
-            for (ICloningStrategy strategy : cloningStrategies) {
-                ICloningStrategy.Strategy s = strategy.strategyFor(o, field);
+    /**
+     * Deep clones the field values handed to it by a copy constructor. The clone under construction is registered
+     * with the first field so that cyclic references back to it resolve to the clone.
+     */
+    private static final class CopyConstructorFieldCloner implements BiFunction<Object, Object, Object> {
+        private final Cloner cloner;
+        private final Object o;
+        private final Map<Object, Object> clones;
+        private boolean registered;
+
+        CopyConstructorFieldCloner(Cloner cloner, Object o, Map<Object, Object> clones) {
+            this.cloner = cloner;
+            this.o = o;
+            this.clones = clones;
+        }
+
+        public Object apply(Object clone, Object fieldObject) {
+            if (!registered) {
+                clones.put(o, clone);
+                registered = true;
+            }
+            return cloner.cloneInternal(fieldObject, clones);
+        }
+    }
+
+    private Object applyCloningStrategy(Map<Object, Object> clones, Object o, Object fieldObject, FieldStrategies strategies) {
+        if (strategies != null) {
+            for (ICloningStrategy strategy : strategies.perInstance) {
+                ICloningStrategy.Strategy s = strategy.strategyFor(o, strategies.field);
                 if (s == ICloningStrategy.Strategy.NULL_INSTEAD_OF_CLONE) return null;
                 if (s == ICloningStrategy.Strategy.SAME_INSTANCE_INSTEAD_OF_CLONE) return fieldObject;
             }
+            if (strategies.resolved == ICloningStrategy.Strategy.NULL_INSTEAD_OF_CLONE) return null;
+            if (strategies.resolved == ICloningStrategy.Strategy.SAME_INSTANCE_INSTEAD_OF_CLONE) return fieldObject;
         }
         return cloneInternal(fieldObject, clones);
     }
 
-    private boolean isAnonymousParent(final Field field) {
+    /**
+     * The cloning strategies of a field: those depending on the instance, asked in order for each value, then the
+     * first static one applying to the field, resolved once.
+     */
+    private static final class FieldStrategies {
+        final Field field;
+        final ICloningStrategy[] perInstance;
+        final ICloningStrategy.Strategy resolved;
+
+        FieldStrategies(Field field, ICloningStrategy[] perInstance, ICloningStrategy.Strategy resolved) {
+            this.field = field;
+            this.perInstance = perInstance;
+            this.resolved = resolved;
+        }
+
+        /**
+         * @return true if the values of the field are always shared with the clone
+         */
+        boolean alwaysSame() {
+            return perInstance.length == 0 && resolved == ICloningStrategy.Strategy.SAME_INSTANCE_INSTEAD_OF_CLONE;
+        }
+
+        /**
+         * @return true if the field is always null within the clone
+         */
+        boolean alwaysNull() {
+            return perInstance.length == 0 && resolved == ICloningStrategy.Strategy.NULL_INSTEAD_OF_CLONE;
+        }
+    }
+
+    private static boolean isAnonymousParent(final Field field) {
         return "this$0".equals(field.getName());
     }
 
@@ -697,6 +2562,10 @@ public class Cloner {
      * @return the field list
      */
     protected List<Field> allFields(Class<?> c) {
+        return declaredFields(c);
+    }
+
+    private static List<Field> declaredFields(Class<?> c) {
         List<Field> l = new ArrayList<>();
         while (c != Object.class && c != null) {
             Collections.addAll(l, c.getDeclaredFields());
@@ -705,6 +2574,14 @@ public class Cloner {
         return l;
     }
 
+    private static Map<Field, Object> cookies(List<Field> fields) {
+        Map<Field, Object> m = new HashMap<>();
+        for (final Field field : fields) {
+            m.put(field, Fields.ACCESSOR.getCookie(field));
+        }
+        return m;
+    }
+
     /**
      * Return a mapping of {@link Field}s to their {@link Fields.Accessor#getCookie cookies}.
      *
@@ -713,23 +2590,11 @@ public class Cloner {
      * @return the map of fields to cookies
      */
     private Map<Field, Object> getFieldToCookieMap(final Class<?> c) {
-        Map<Field, Object> m = fieldsCache.get(c);
-        if (m == null) {
-            List<Field> fields = allFields(c);
-            m = new HashMap<>();
-            for (final Field field : fields) {
-                m.put(field, Fields.ACCESSOR.getCookie(field));
-            }
-            Map<Field, Object> m0 = fieldsCache.putIfAbsent(c, m);
-            if (m0 != null) {
-                m = m0;
-            }
-        }
-        return m;
+        return fieldsCache.get(c);
     }
 
     public boolean isDumpClonedClasses() {
-        return dumpCloned != null;
+        return config().dumpCloned != null;
     }
 
     /**
@@ -741,7 +2606,7 @@ public class Cloner {
      */
     public void setDumpClonedClasses(final boolean dumpClonedClasses) {
         if (dumpClonedClasses) {
-            dumpCloned = new IDumpCloned() {
+            setDumpCloned(new IDumpCloned() {
                 public void startCloning(Class<?> clz) {
                     System.out.println("clone>" + clz);
                 }
@@ -749,16 +2614,16 @@ public class Cloner {
                 public void cloning(Field field, Class<?> clz) {
                     System.out.println("cloned field>" + field + "  -- of class " + clz);
                 }
-            };
-        } else dumpCloned = null;
+            });
+        } else setDumpCloned(null);
     }
 
     public boolean isCloningEnabled() {
-        return cloningEnabled;
+        return config().cloningEnabled;
     }
 
     public void setCloningEnabled(final boolean cloningEnabled) {
-        this.cloningEnabled = cloningEnabled;
+        reconfigure(b -> b.cloningEnabled(cloningEnabled));
     }
 
     /**
@@ -767,11 +2632,11 @@ public class Cloner {
      * @param cloneAnonymousParent Whether to clone anonymous parent classes
      */
     public void setCloneAnonymousParent(final boolean cloneAnonymousParent) {
-        this.cloneAnonymousParent = cloneAnonymousParent;
+        reconfigure(b -> b.cloneAnonymousParent(cloneAnonymousParent));
     }
 
     public boolean isCloneAnonymousParent() {
-        return cloneAnonymousParent;
+        return config().cloneAnonymousParent;
     }
 
     /**
@@ -790,14 +2655,62 @@ public class Cloner {
         return new Cloner(new ObjenesisInstantiationStrategy());
     }
 
-    private class ClonesMap extends IdentityHashMap<Object, Object> {
+    private static final class ClonesMap extends ClonesTable {
+        // the work list of the iterative traversal: the cloner, the original and the clone of each clone whose
+        // references are still to be cloned
+        final ArrayDeque<Object> pending = new ArrayDeque<>();
+        // the number of objects being cloned recursively
+        int depth;
+        // true if the clones aren't tracked, see deepCloneTree. The map then only holds the constants
+        boolean tree;
+        // of the root class of the deep clone
+        GraphSize graphSize;
+        // the one the deep clone started with, used until it completes
+        Setup setup;
+        // the map of the deep clone a parallel chunk is part of, which holds the clones made before the chunk and
+        // isn't changed until the chunks complete. Null for the maps of deep clones
+        private final ClonesMap parent;
+
+        ClonesMap(int expectedSize, Object[] constants) {
+            super(expectedSize, constants);
+            parent = null;
+        }
+
+        /**
+         * a map of a parallel chunk, holding the clones made by the chunk only
+         */
+        ClonesMap(ClonesMap parent, int expectedSize) {
+            super(expectedSize, NO_CONSTANTS);
+            this.parent = parent;
+            tree = parent.tree;
+            graphSize = parent.graphSize;
+            setup = parent.setup;
+        }
+
         @Override
         public Object get(Object key) {
-            if (ignoredInstances != null) {
-                Object o = ignoredInstances.get(key);
-                if (o != null) return o;
-            }
-            return super.get(key);
+            final Object clone = super.get(key);
+            return clone != null || parent == null ? clone : parent.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return super.containsKey(key) || parent != null && parent.containsKey(key);
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            pending.clear();
+            depth = 0;
+            tree = false;
+            graphSize = null;
+            setup = null;
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            return tree ? null : super.put(key, value);
         }
     }
 }
@@ -0,0 +1,129 @@
+package com.rits.cloning;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+/**
+ * Compiles the field plan of a class into a single straight-line {@link MethodHandle}.
+ *
+ * <p>Each field becomes a direct field getter/setter pair (deep cloned references are routed through the
+ * {@code cloneField} handles of the cloner, with the cloner passed along) and all fields are chained with
+ * {@link MethodHandles#foldArguments}. Once the compiled handle gets hot, the JDK customizes its lambda form into a
+ * dedicated hidden class in which the per-field handles are constants, so the JIT sees plain field loads and stores
+ * instead of the interpreted {@code Field[]} loop.
+ *
+ * <p>Package-private, used by {@link Cloner} when {@link Cloner#setCompileCloners compiled cloners} are enabled.
+ */
+final class ClonerCompiler {
+    /**
+     * The type of compiled deep clone handles: {@code (Cloner cloner, Object src, Object dst, Map clones)void}.
+     */
+    static final MethodType DEEP_TYPE = MethodType.methodType(void.class, Cloner.class, Object.class, Object.class, Map.class);
+
+    /**
+     * The type of compiled shallow clone handles: {@code (Object src, Object dst)void}.
+     */
+    static final MethodType SHALLOW_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The type of the {@code cloneField} handles, each bound to its field:
+     * {@code (Cloner cloner, Object src, Object value, Map clones)Object}.
+     */
+    static final MethodType CLONE_FIELD_TYPE = MethodType.methodType(Object.class, Cloner.class, Object.class, Object.class, Map.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Blocked constructor.
+     */
+    private ClonerCompiler() {}
+
+    /**
+     * Compile a deep clone handle for the given fields.
+     *
+     * @param clz         the class the fields belong to
+     * @param fields      the fields to clone
+     * @param cloneFields for each field, the handle of type {@link #CLONE_FIELD_TYPE} deep cloning its value, or null
+     *                    if the field value is to be copied
+     * @return a handle of type {@link #DEEP_TYPE}
+     * @throws IllegalAccessException if any of the fields can't be accessed
+     */
+    static MethodHandle compileDeep(Class<?> clz, Field[] fields, MethodHandle[] cloneFields) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clz, LOOKUP);
+        MethodHandle plan = MethodHandles.empty(DEEP_TYPE);
+        for (int i = fields.length - 1; i >= 0; i--) {
+            Field field = fields[i];
+            MethodHandle getter = getter(lookup, field);
+            MethodHandle setter = setter(lookup, field);
+            MethodHandle op;
+            if (cloneFields[i] != null && !field.getType().isPrimitive()) {
+                // (cloner, src, clones) -> cloneField(cloner, src, get(src), clones)
+                MethodHandle cloned = MethodHandles.filterArguments(cloneFields[i], 2, getter);
+                cloned = MethodHandles.permuteArguments(cloned, MethodType.methodType(Object.class, Cloner.class, Object.class, Map.class), 0, 1, 1, 2);
+                // (dst, cloner, src, clones) -> set(dst, cloned(cloner, src, clones)), reordered to (cloner, src, dst, clones)
+                op = MethodHandles.collectArguments(setter, 1, cloned);
+                op = MethodHandles.permuteArguments(op, DEEP_TYPE, 2, 0, 1, 3);
+            } else {
+                op = MethodHandles.permuteArguments(copy(getter, setter), DEEP_TYPE, 1, 2);
+            }
+            plan = MethodHandles.foldArguments(plan, op);
+        }
+        return plan;
+    }
+
+    /**
+     * Compile a shallow clone handle copying all the given fields.
+     *
+     * @param clz    the class the fields belong to
+     * @param fields the fields to copy
+     * @return a handle of type {@link #SHALLOW_TYPE}
+     * @throws IllegalAccessException if any of the fields can't be accessed
+     */
+    static MethodHandle compileShallow(Class<?> clz, Field[] fields) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clz, LOOKUP);
+        MethodHandle plan = MethodHandles.empty(SHALLOW_TYPE);
+        for (int i = fields.length - 1; i >= 0; i--) {
+            plan = MethodHandles.foldArguments(plan, copy(getter(lookup, fields[i]), setter(lookup, fields[i])));
+        }
+        return plan;
+    }
+
+    /**
+     * @return a handle {@code (src, dst)void} copying the field value from src to dst without boxing primitives
+     */
+    private static MethodHandle copy(MethodHandle getter, MethodHandle setter) {
+        // (dst, src) -> set(dst, get(src)), reordered to (src, dst)
+        MethodHandle op = MethodHandles.filterArguments(setter, 1, getter);
+        return MethodHandles.permuteArguments(op, SHALLOW_TYPE, 1, 0);
+    }
+
+    /**
+     * @return a getter of type {@code (Object)T} where T is the field type, or {@code (Object)Object} for references
+     */
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        MethodHandle h = lookup.unreflectGetter(field);
+        MethodType t = h.type().changeParameterType(0, Object.class);
+        if (!field.getType().isPrimitive()) {
+            t = t.changeReturnType(Object.class);
+        }
+        return h.asType(t);
+    }
+
+    /**
+     * @return a setter of type {@code (Object, T)void} where T is the field type, or {@code (Object, Object)void} for
+     * references
+     */
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        // unreflectSetter permits writing final instance fields once the field has been made accessible
+        field.setAccessible(true);
+        MethodHandle h = lookup.unreflectSetter(field);
+        MethodType t = h.type().changeParameterType(0, Object.class);
+        if (!field.getType().isPrimitive()) {
+            t = t.changeParameterType(1, Object.class);
+        }
+        return h.asType(t);
+    }
+}
@@ -0,0 +1,394 @@
+package com.rits.cloning;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * An immutable snapshot of the configuration of a {@link Cloner}: the classes it doesn't clone or nulls, its fast
+ * cloners, cloning strategies and constants, and its settings.
+ *
+ * <p>Each change to a cloner's configuration, through {@link Cloner#reconfigure} or any of its registration methods
+ * and setters, builds a new snapshot with the next {@link #getVersion() version} and installs it at once. Deep clones
+ * read the current snapshot without locking and use the same one from start to end, so they never see a change half
+ * applied.
+ *
+ * <pre>
+ * ClonerConfig config = cloner.getConfig().toBuilder().dontClone(Session.class).nullTransient(true).build();
+ * cloner.setConfig(config);
+ * </pre>
+ */
+public final class ClonerConfig {
+    final long version;
+    // the classes which are not cloned, registered as immutables or through dontClone
+    final Set<Class<?>> ignored;
+    final Set<Class<?>> ignoredInstanceOf;
+    final Set<Class<?>> nullInstead;
+    final Set<Class<? extends Annotation>> nullInsteadFieldAnnotations;
+    final Map<Class<?>, IFastCloner> fastCloners;
+    // null if none are registered
+    final List<ICloningStrategy> cloningStrategies;
+    final Object[] constants;
+    final IDumpCloned dumpCloned;
+    final boolean cloningEnabled;
+    final boolean nullTransient;
+    final boolean cloneSynthetics;
+    final boolean compileCloners;
+    final boolean useObjectClone;
+    final boolean iterativeTraversal;
+    final boolean inferImmutables;
+    final boolean cloneAnonymousParent;
+    final int parallelThreshold;
+    // racy, as recomputing it gives the same value
+    private int plansHash;
+
+    private ClonerConfig(Builder b) {
+        version = b.version;
+        // unlike Set.copyOf and Map.copyOf, these copies accept the nulls registrations always did
+        ignored = Collections.unmodifiableSet(new HashSet<>(b.ignored));
+        ignoredInstanceOf = Collections.unmodifiableSet(new HashSet<>(b.ignoredInstanceOf));
+        nullInstead = Collections.unmodifiableSet(new HashSet<>(b.nullInstead));
+        nullInsteadFieldAnnotations = Collections.unmodifiableSet(new HashSet<>(b.nullInsteadFieldAnnotations));
+        fastCloners = Collections.unmodifiableMap(new HashMap<>(b.fastCloners));
+        cloningStrategies = b.cloningStrategies.isEmpty() ? null : List.copyOf(b.cloningStrategies);
+        // the same array as long as the constants don't change, so that the pooled clones maps keep them
+        constants = b.constants != null ? b.constants : b.constantSet.keySet().toArray();
+        dumpCloned = b.dumpCloned;
+        cloningEnabled = b.cloningEnabled;
+        nullTransient = b.nullTransient;
+        cloneSynthetics = b.cloneSynthetics;
+        compileCloners = b.compileCloners;
+        useObjectClone = b.useObjectClone;
+        iterativeTraversal = b.iterativeTraversal;
+        inferImmutables = b.inferImmutables;
+        cloneAnonymousParent = b.cloneAnonymousParent;
+        parallelThreshold = b.parallelThreshold;
+    }
+
+    /**
+     * @return a builder of a configuration with the default settings and nothing registered, not even the JDK
+     * immutables and fast cloners every new {@link Cloner} registers
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder of the next version of this configuration, starting with its current content
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * @return the number of changes which led from the initial configuration of the cloner to this one
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the classes which are not cloned, registered through dontClone or as immutables
+     */
+    public Set<Class<?>> getIgnored() {
+        return ignored;
+    }
+
+    public Set<Class<?>> getIgnoredInstanceOf() {
+        return ignoredInstanceOf;
+    }
+
+    public Set<Class<?>> getNullInstead() {
+        return nullInstead;
+    }
+
+    public Set<Class<? extends Annotation>> getNullInsteadFieldAnnotations() {
+        return nullInsteadFieldAnnotations;
+    }
+
+    public Map<Class<?>, IFastCloner> getFastCloners() {
+        return fastCloners;
+    }
+
+    public List<ICloningStrategy> getCloningStrategies() {
+        return cloningStrategies == null ? List.of() : cloningStrategies;
+    }
+
+    public List<Object> getConstants() {
+        return Collections.unmodifiableList(Arrays.asList(constants));
+    }
+
+    public IDumpCloned getDumpCloned() {
+        return dumpCloned;
+    }
+
+    public boolean isCloningEnabled() {
+        return cloningEnabled;
+    }
+
+    public boolean isNullTransient() {
+        return nullTransient;
+    }
+
+    public boolean isCloneSynthetics() {
+        return cloneSynthetics;
+    }
+
+    public boolean isCompileCloners() {
+        return compileCloners;
+    }
+
+    public boolean isUseObjectClone() {
+        return useObjectClone;
+    }
+
+    public boolean isIterativeTraversal() {
+        return iterativeTraversal;
+    }
+
+    public boolean isInferImmutables() {
+        return inferImmutables;
+    }
+
+    public boolean isCloneAnonymousParent() {
+        return cloneAnonymousParent;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * @return true if the per class plans built for this configuration also hold for other, which then only differs
+     * by settings read while cloning: its constants, dumping, whether cloning is enabled, the traversal and the
+     * parallel threshold
+     */
+    boolean hasSamePlans(ClonerConfig other) {
+        return this == other || nullTransient == other.nullTransient && cloneSynthetics == other.cloneSynthetics
+                && compileCloners == other.compileCloners && useObjectClone == other.useObjectClone
+                && inferImmutables == other.inferImmutables && cloneAnonymousParent == other.cloneAnonymousParent
+                && ignored.equals(other.ignored) && ignoredInstanceOf.equals(other.ignoredInstanceOf)
+                && nullInstead.equals(other.nullInstead)
+                && nullInsteadFieldAnnotations.equals(other.nullInsteadFieldAnnotations)
+                && fastCloners.equals(other.fastCloners)
+                && Objects.equals(cloningStrategies, other.cloningStrategies);
+    }
+
+    /**
+     * @return a hash code of the settings compared by {@link #hasSamePlans}
+     */
+    int plansHashCode() {
+        int h = plansHash;
+        if (h == 0) {
+            h = Objects.hash(nullTransient, cloneSynthetics, compileCloners, useObjectClone, inferImmutables,
+                    cloneAnonymousParent, ignored, ignoredInstanceOf, nullInstead, nullInsteadFieldAnnotations,
+                    fastCloners, cloningStrategies);
+            plansHash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Collects the changes of a configuration. Not thread safe, each change builds upon its own builder.
+     */
+    public static final class Builder {
+        private final long version;
+        final Set<Class<?>> ignored = new HashSet<>();
+        final Set<Class<?>> ignoredInstanceOf = new HashSet<>();
+        final Set<Class<?>> nullInstead = new HashSet<>();
+        final Set<Class<? extends Annotation>> nullInsteadFieldAnnotations = new HashSet<>();
+        final Map<Class<?>, IFastCloner> fastCloners = new HashMap<>();
+        final List<ICloningStrategy> cloningStrategies = new ArrayList<>();
+        private final Map<Object, Object> constantSet = new IdentityHashMap<>();
+        // the constants of the configuration built upon, until a constant is registered
+        private Object[] constants;
+        private IDumpCloned dumpCloned;
+        private boolean cloningEnabled = true;
+        private boolean nullTransient = false;
+        private boolean cloneSynthetics = true;
+        private boolean compileCloners = false;
+        private boolean useObjectClone = true;
+        private boolean iterativeTraversal = false;
+        private boolean inferImmutables;
+        private boolean cloneAnonymousParent = true;
+        private int parallelThreshold = 0;
+
+        private Builder() {
+            version = 0;
+        }
+
+        private Builder(ClonerConfig config) {
+            version = config.version + 1;
+            ignored.addAll(config.ignored);
+            ignoredInstanceOf.addAll(config.ignoredInstanceOf);
+            nullInstead.addAll(config.nullInstead);
+            nullInsteadFieldAnnotations.addAll(config.nullInsteadFieldAnnotations);
+            fastCloners.putAll(config.fastCloners);
+            if (config.cloningStrategies != null) {
+                cloningStrategies.addAll(config.cloningStrategies);
+            }
+            constants = config.constants;
+            dumpCloned = config.dumpCloned;
+            cloningEnabled = config.cloningEnabled;
+            nullTransient = config.nullTransient;
+            cloneSynthetics = config.cloneSynthetics;
+            compileCloners = config.compileCloners;
+            useObjectClone = config.useObjectClone;
+            iterativeTraversal = config.iterativeTraversal;
+            inferImmutables = config.inferImmutables;
+            cloneAnonymousParent = config.cloneAnonymousParent;
+            parallelThreshold = config.parallelThreshold;
+        }
+
+        public ClonerConfig build() {
+            return new ClonerConfig(this);
+        }
+
+        /**
+         * @see Cloner#dontClone
+         */
+        public Builder dontClone(final Class<?>... c) {
+            Collections.addAll(ignored, c);
+            return this;
+        }
+
+        /**
+         * @see Cloner#registerImmutable
+         */
+        public Builder registerImmutable(final Class<?>... c) {
+            return dontClone(c);
+        }
+
+        /**
+         * @see Cloner#dontCloneInstanceOf
+         */
+        public Builder dontCloneInstanceOf(final Class<?>... c) {
+            Collections.addAll(ignoredInstanceOf, c);
+            return this;
+        }
+
+        /**
+         * @see Cloner#nullInsteadOfClone
+         */
+        public Builder nullInsteadOfClone(final Class<?>... c) {
+            Collections.addAll(nullInstead, c);
+            return this;
+        }
+
+        /**
+         * @see Cloner#nullInsteadOfCloneFieldAnnotation
+         */
+        @SafeVarargs
+        public final Builder nullInsteadOfCloneFieldAnnotation(final Class<? extends Annotation>... a) {
+            Collections.addAll(nullInsteadFieldAnnotations, a);
+            return this;
+        }
+
+        /**
+         * @see Cloner#registerFastCloner
+         */
+        public Builder registerFastCloner(final Class<?> c, final IFastCloner fastCloner) {
+            if (fastCloners.containsKey(c)) throw new IllegalArgumentException(c + " already fast-cloned!");
+            fastCloners.put(c, fastCloner);
+            return this;
+        }
+
+        public Builder unregisterFastCloner(final Class<?> c) {
+            fastCloners.remove(c);
+            return this;
+        }
+
+        /**
+         * @see Cloner#registerCloningStrategy
+         */
+        public Builder registerCloningStrategy(final ICloningStrategy strategy) {
+            if (strategy == null) throw new NullPointerException("strategy can't be null");
+            cloningStrategies.add(strategy);
+            return this;
+        }
+
+        /**
+         * @see Cloner#registerConstant(Object)
+         */
+        public Builder registerConstant(final Object o) {
+            if (constants != null) {
+                for (Object constant : constants) {
+                    constantSet.put(constant, constant);
+                }
+                constants = null;
+            }
+            constantSet.put(o, o);
+            return this;
+        }
+
+        public Builder dumpCloned(final IDumpCloned dumpCloned) {
+            this.dumpCloned = dumpCloned;
+            return this;
+        }
+
+        public Builder cloningEnabled(final boolean cloningEnabled) {
+            this.cloningEnabled = cloningEnabled;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setNullTransient
+         */
+        public Builder nullTransient(final boolean nullTransient) {
+            this.nullTransient = nullTransient;
+            return this;
+        }
+
+        public Builder cloneSynthetics(final boolean cloneSynthetics) {
+            this.cloneSynthetics = cloneSynthetics;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setCompileCloners
+         */
+        public Builder compileCloners(final boolean compileCloners) {
+            this.compileCloners = compileCloners;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setUseObjectClone
+         */
+        public Builder useObjectClone(final boolean useObjectClone) {
+            this.useObjectClone = useObjectClone;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setIterativeTraversal
+         */
+        public Builder iterativeTraversal(final boolean iterativeTraversal) {
+            this.iterativeTraversal = iterativeTraversal;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setInferImmutables
+         */
+        public Builder inferImmutables(final boolean inferImmutables) {
+            this.inferImmutables = inferImmutables;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setCloneAnonymousParent
+         */
+        public Builder cloneAnonymousParent(final boolean cloneAnonymousParent) {
+            this.cloneAnonymousParent = cloneAnonymousParent;
+            return this;
+        }
+
+        /**
+         * @see Cloner#setParallelThreshold
+         */
+        public Builder parallelThreshold(final int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.rits.cloning;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An identity map from the objects being cloned to their clones, tuned for the way a deep clone uses it: a lookup and
+ * most often an insertion per cloned object, no removal, then a clear once the clone is complete so that the map can
+ * be reused.
+ *
+ * <p>Up to {@link #LINEAR_MAX} entries are kept as a list at the start of the table and looked up by scanning it, so
+ * the objects of small graphs don't even get their identity hash codes computed. Bigger maps are open addressing
+ * tables with linear probing, laid out like {@link IdentityHashMap}: each key is followed by its value in a single
+ * array.
+ *
+ * <p>The constants of the cloner are entries of the map, mapped to themselves, so a single lookup tells both whether
+ * an object is a constant and whether it was cloned already. They are put into the table before anything else, so
+ * their probe sequences only cross other constants: clearing the map removes the entries added since by their
+ * recorded slots, leaving the constants in place, and costs as little as the deep clone was small.
+ *
+ * <p>Package-private, backs the clones maps of {@link Cloner}.
+ */
+class ClonesTable extends AbstractMap<Object, Object> {
+    // the most entries kept as a list rather than hashed
+    static final int LINEAR_MAX = 8;
+    // of the smallest table, which must hold LINEAR_MAX entries within 2/3 of its capacity
+    private static final int MIN_CAPACITY = 16;
+    private static final Object NULL_KEY = new Object();
+    static final Object[] NO_CONSTANTS = new Object[0];
+
+    // keys at even indices, each one followed by its value. Unused slots are null
+    private Object[] table;
+    private int size;
+    // false while the entries are a list at the start of the table, which has no constants then
+    private boolean hashed;
+    private Object[] constants;
+    // the indices within the hashed table of the entries added after the constants, in the order they were added
+    private int[] slots = new int[LINEAR_MAX];
+    // holds the list while it is moved into the hashed table
+    private Object[] scratch;
+
+    ClonesTable(int expectedSize, Object[] constants) {
+        this.constants = constants;
+        table = new Object[2 * capacity(expectedSize + constants.length)];
+        putConstants();
+    }
+
+    /**
+     * @return the capacity of a table holding expectedSize entries without growing
+     */
+    static int capacity(int expectedSize) {
+        // a table is grown once it is 2/3 full
+        final int min = expectedSize + (expectedSize >> 1) + 1;
+        return min <= MIN_CAPACITY ? MIN_CAPACITY : Integer.highestOneBit(min - 1) << 1;
+    }
+
+    int capacity() {
+        return table.length >> 1;
+    }
+
+    /**
+     * @return the number of entries besides the constants
+     */
+    int added() {
+        return size - constants.length;
+    }
+
+    /**
+     * readies the cleared map for a deep clone with the given constants, expected to add about expectedSize entries
+     */
+    void prepare(int expectedSize, Object[] constants) {
+        final int capacity = capacity(expectedSize + constants.length);
+        if (capacity > capacity() || constants != this.constants) {
+            table = new Object[2 * Math.max(capacity, capacity())];
+            this.constants = constants;
+            putConstants();
+        }
+        if (!hashed && expectedSize > LINEAR_MAX) {
+            // the table is empty, so it is hashed as is
+            hashed = true;
+        }
+    }
+
+    /**
+     * fills the empty table with the constants only
+     */
+    private void putConstants() {
+        size = constants.length;
+        hashed = size > 0;
+        for (Object constant : constants) {
+            insert(table, mask(constant), constant);
+        }
+    }
+
+    @Override
+    public void clear() {
+        final Object[] tab = table;
+        if (hashed) {
+            for (int k = 0, n = added(); k < n; k++) {
+                final int i = slots[k];
+                tab[i] = null;
+                tab[i + 1] = null;
+            }
+        } else {
+            Arrays.fill(tab, 0, size << 1, null);
+        }
+        size = constants.length;
+        hashed = size > 0;
+    }
+
+    /**
+     * puts the entries added to this map into target, stopping at the first key which target holds already
+     *
+     * @return false if target held one of the keys
+     */
+    boolean putAddedInto(ClonesTable target) {
+        final Object[] tab = table;
+        for (int k = 0, n = added(); k < n; k++) {
+            final int i = hashed ? slots[k] : k << 1;
+            final Object key = unmask(tab[i]);
+            if (target.containsKey(key)) return false;
+            target.put(key, tab[i + 1]);
+        }
+        return true;
+    }
+
+    /**
+     * removes the entries added after the first mark ones, newest first, so that the probe sequences of the entries
+     * left are the same as before they were added
+     */
+    void truncate(int mark) {
+        final Object[] tab = table;
+        if (hashed) {
+            for (int k = added() - 1; k >= mark; k--) {
+                final int i = slots[k];
+                tab[i] = null;
+                tab[i + 1] = null;
+            }
+        } else {
+            Arrays.fill(tab, mark << 1, size << 1, null);
+        }
+        size = constants.length + mark;
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmask(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    private static int hash(Object k, int length) {
+        final int h = System.identityHashCode(k);
+        // multiplies by -127 and keeps the index even, as IdentityHashMap does
+        return ((h << 1) - (h << 8)) & (length - 1);
+    }
+
+    private static int next(int i, int length) {
+        return i + 2 < length ? i + 2 : 0;
+    }
+
+    /**
+     * @return the index of key within the table, or -1
+     */
+    private int indexOf(Object k) {
+        final Object[] tab = table;
+        if (!hashed) {
+            for (int i = 0, n = size << 1; i < n; i += 2) {
+                if (tab[i] == k) return i;
+            }
+            return -1;
+        }
+        final int length = tab.length;
+        for (int i = hash(k, length); ; i = next(i, length)) {
+            final Object item = tab[i];
+            if (item == k) return i;
+            if (item == null) return -1;
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        final int i = indexOf(mask(key));
+        return i < 0 ? null : table[i + 1];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(mask(key)) >= 0;
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        final Object k = mask(key);
+        if (!hashed) {
+            final int i = indexOf(k);
+            if (i >= 0) {
+                final Object old = table[i + 1];
+                table[i + 1] = value;
+                return old;
+            }
+            if (size < LINEAR_MAX) {
+                table[size << 1] = k;
+                table[(size << 1) + 1] = value;
+                size++;
+                return null;
+            }
+            toHashed();
+        }
+        final Object[] tab = table;
+        final int length = tab.length;
+        int i = hash(k, length);
+        for (Object item; (item = tab[i]) != null; i = next(i, length)) {
+            if (item == k) {
+                final Object old = tab[i + 1];
+                tab[i + 1] = value;
+                return old;
+            }
+        }
+        tab[i] = k;
+        tab[i + 1] = value;
+        addSlot(i);
+        if (size * 3 > length) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * records the slot of a new entry of the hashed table
+     */
+    private void addSlot(int i) {
+        final int k = added();
+        if (k == slots.length) {
+            slots = Arrays.copyOf(slots, k << 1);
+        }
+        slots[k] = i;
+        size++;
+    }
+
+    /**
+     * puts a key known not to be in the table yet
+     *
+     * @return the index of the key
+     */
+    private static int insert(Object[] tab, Object k, Object value) {
+        final int length = tab.length;
+        int i = hash(k, length);
+        while (tab[i] != null) {
+            i = next(i, length);
+        }
+        tab[i] = k;
+        tab[i + 1] = value;
+        return i;
+    }
+
+    private void toHashed() {
+        final int n = size << 1;
+        if (scratch == null) scratch = new Object[2 * LINEAR_MAX];
+        System.arraycopy(table, 0, scratch, 0, n);
+        Arrays.fill(table, 0, n, null);
+        size = 0;
+        hashed = true;
+        for (int i = 0; i < n; i += 2) {
+            addSlot(insert(table, scratch[i], scratch[i + 1]));
+        }
+        Arrays.fill(scratch, 0, n, null);
+    }
+
+    private void resize() {
+        final Object[] old = table;
+        table = new Object[old.length << 1];
+        final int n = added();
+        putConstants();
+        hashed = true;
+        for (int k = 0; k < n; k++) {
+            final int i = slots[k];
+            addSlot(insert(table, old[i], old[i + 1]));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Object, Object>> iterator() {
+                return new Iterator<>() {
+                    private final Object[] tab = table;
+                    private final int end = hashed ? tab.length : size << 1;
+                    private int i = advance(0);
+
+                    private int advance(int from) {
+                        while (from < end && tab[from] == null) {
+                            from += 2;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < end;
+                    }
+
+                    @Override
+                    public Entry<Object, Object> next() {
+                        if (i >= end) throw new NoSuchElementException();
+                        final Entry<Object, Object> e = new SimpleImmutableEntry<>(unmask(tab[i]), tab[i + 1]);
+                        i = advance(i + 2);
+                        return e;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -5,12 +5,17 @@ import java.lang.reflect.Field;
 
 public class CloningStrategyFactory {
 	public static ICloningStrategy annotatedField(final Class<? extends Annotation> annotationClass, final ICloningStrategy.Strategy strategy) {
-		return new ICloningStrategy() {
-			public Strategy strategyFor(Object toBeCloned, Field field) {
-				if (toBeCloned == null) return Strategy.IGNORE;
+		return new IStaticCloningStrategy() {
+			public Strategy strategyFor(Field field) {
 				if (field.getDeclaredAnnotation(annotationClass) != null) return strategy;
 				return Strategy.IGNORE;
 			}
+
+			@Override
+			public Strategy strategyFor(Object toBeCloned, Field field) {
+				if (toBeCloned == null) return Strategy.IGNORE;
+				return strategyFor(field);
+			}
 		};
 	}
 }
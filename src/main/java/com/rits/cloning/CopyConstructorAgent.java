@@ -0,0 +1,49 @@
+package com.rits.cloning;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * optional java agent which adds a synthetic copy constructor to selected classes while they are loaded. The
+ * {@link Cloner} clones instances of those classes by calling the copy constructor, instead of instantiating them via
+ * Objenesis and writing each field reflectively. As the fields are assigned by a constructor, final fields are set
+ * legally and the whole copy is JIT compiled like regular code.
+ * <p>
+ * The agent argument is a comma separated list of class name prefixes, i.e.
+ * <pre>
+ * java -javaagent:cloning.jar=com.acme.config.,com.acme.model.Order ...
+ * </pre>
+ * The super classes of a selected class must either be selected too or be {@link Object}, otherwise the class is left
+ * untouched. Enums, interfaces and records are never transformed. The copy constructor is only used when the cloner
+ * would deep clone every field of the class anyway, i.e. no cloning strategies, nullTransient or null-instead field
+ * annotations apply to it.
+ *
+ * @see Cloner#deepClone(Object)
+ */
+public class CopyConstructorAgent
+{
+	private CopyConstructorAgent()
+	{
+	}
+
+	public static void premain(final String args, final Instrumentation instrumentation)
+	{
+		instrumentation.addTransformer(transformer(args == null ? new String[0] : args.split(",")));
+	}
+
+	/**
+	 * @param classNamePrefixes prefixes of the (binary) names of the classes to add copy constructors to
+	 * @return the transformer adding copy constructors, i.e. to be registered with an {@link Instrumentation}
+	 */
+	public static ClassFileTransformer transformer(final String... classNamePrefixes)
+	{
+		final List<String> prefixes = new ArrayList<>();
+		for (final String prefix : classNamePrefixes)
+		{
+			if (!prefix.isBlank()) prefixes.add(prefix.trim().replace('.', '/'));
+		}
+		return new CopyConstructorTransformer(prefixes.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,308 @@
+package com.rits.cloning;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ClassFileTransformer} appending a synthetic copy constructor to the selected classes.
+ *
+ * <p>For a class {@code C} with super class {@code S} the constructor added is equivalent to:
+ * <pre>
+ * protected C(C src, BiFunction&lt;Object, Object, Object&gt; cloner) {
+ *     super(src, cloner); // or super() if S is Object
+ *     this.primitive = src.primitive;
+ *     this.reference = (T) cloner.apply(this, src.reference);
+ *     ...
+ * }
+ * </pre>
+ * As it is a real constructor of {@code C}, {@code final} fields are assigned legally. The code is straight-line, so
+ * no {@code StackMapTable} is needed and the rest of the class file is copied untouched; only constant pool entries
+ * and the method itself are appended.
+ *
+ * <p>Classes are skipped (left untouched) if they are interfaces, enums, records, modules or if their super class is
+ * neither {@link Object} nor selected itself.
+ */
+class CopyConstructorTransformer implements ClassFileTransformer {
+    static final String FUNCTION = "java/util/function/BiFunction";
+    static final String APPLY_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ENUM = 0x4000;
+    private static final int ACC_MODULE = 0x8000;
+    private static final int ACC_PROTECTED = 0x0004;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private final String[] prefixes;
+
+    /**
+     * @param prefixes class name prefixes in internal form (i.e. {@code com/acme/}) of the classes to transform
+     */
+    CopyConstructorTransformer(String... prefixes) {
+        this.prefixes = prefixes;
+    }
+
+    boolean isSelected(String internalName) {
+        for (String prefix : prefixes) {
+            if (internalName.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the descriptor of the copy constructor of the class with the given internal name
+     */
+    static String descriptor(String internalName) {
+        return "(L" + internalName + ";L" + FUNCTION + ";)V";
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null || classBeingRedefined != null || !isSelected(className)) return null;
+        try {
+            return addCopyConstructor(classfileBuffer);
+        } catch (RuntimeException | IOException e) {
+            // never break class loading, the cloner falls back to its regular path for this class
+            return null;
+        }
+    }
+
+    /**
+     * @return the transformed class file, or null if the class is to be left untouched
+     */
+    byte[] addCopyConstructor(byte[] b) throws IOException {
+        Reader r = new Reader(b);
+        if (r.u4() != 0xCAFEBABEL) return null;
+        r.skip(4); // minor, major
+
+        // constant pool, remembering the Utf8 and Class entries
+        int cpCount = r.u2();
+        String[] utf8 = new String[cpCount];
+        int[] classNames = new int[cpCount];
+        for (int i = 1; i < cpCount; i++) {
+            int tag = r.u1();
+            switch (tag) {
+                case 1: utf8[i] = r.utf8(); break;
+                case 7: classNames[i] = r.u2(); break;
+                case 8: case 16: case 19: case 20: r.skip(2); break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18: r.skip(4); break;
+                case 5: case 6: r.skip(8); i++; break;
+                case 15: r.skip(3); break;
+                default: return null;
+            }
+        }
+        int cpEnd = r.pos;
+
+        int access = r.u2();
+        int thisClass = r.u2();
+        int superClass = r.u2();
+        if ((access & (ACC_INTERFACE | ACC_ENUM | ACC_MODULE)) != 0 || superClass == 0) return null;
+        String name = utf8[classNames[thisClass]];
+        String superName = utf8[classNames[superClass]];
+        boolean chained;
+        if ("java/lang/Object".equals(superName)) {
+            chained = false;
+        } else if (isSelected(superName)) {
+            chained = true;
+        } else {
+            return null;
+        }
+        r.skip(2 * r.u2()); // interfaces
+
+        // instance fields
+        List<int[]> fields = new ArrayList<>(); // name & descriptor indexes
+        int fieldsCount = r.u2();
+        for (int i = 0; i < fieldsCount; i++) {
+            int fieldAccess = r.u2();
+            int fieldName = r.u2();
+            int fieldDescriptor = r.u2();
+            r.skipAttributes();
+            if ((fieldAccess & ACC_STATIC) == 0) fields.add(new int[]{fieldName, fieldDescriptor});
+        }
+
+        // methods; bail out if the copy constructor already exists
+        int methodsCountPos = r.pos;
+        int methodsCount = r.u2();
+        String descriptor = descriptor(name);
+        for (int i = 0; i < methodsCount; i++) {
+            r.skip(2);
+            int methodName = r.u2();
+            int methodDescriptor = r.u2();
+            if ("<init>".equals(utf8[methodName]) && descriptor.equals(utf8[methodDescriptor])) return null;
+            r.skipAttributes();
+        }
+        int methodsEnd = r.pos;
+
+        // new constant pool entries
+        Pool pool = new Pool(cpCount);
+        int init = pool.utf8("<init>");
+        int superInit = pool.methodRef(superClass, init, pool.utf8(chained ? descriptor(superName) : "()V"));
+        int apply = pool.interfaceMethodRef(pool.classRef(pool.utf8(FUNCTION)), pool.utf8("apply"), pool.utf8(APPLY_DESCRIPTOR));
+
+        // constructor code
+        ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(codeBytes);
+        code.writeByte(0x2a); // aload_0
+        if (chained) {
+            code.writeByte(0x2b); // aload_1
+            code.writeByte(0x2c); // aload_2
+        }
+        code.writeByte(0xb7); // invokespecial
+        code.writeShort(superInit);
+        for (int[] field : fields) {
+            String fieldDescriptor = utf8[field[1]];
+            int fieldRef = pool.fieldRef(thisClass, field[0], field[1]);
+            char type = fieldDescriptor.charAt(0);
+            code.writeByte(0x2a); // aload_0
+            if (type == 'L' || type == '[') {
+                code.writeByte(0x2c); // aload_2
+                code.writeByte(0x2a); // aload_0
+                code.writeByte(0x2b); // aload_1
+                code.writeByte(0xb4); // getfield
+                code.writeShort(fieldRef);
+                code.writeByte(0xb9); // invokeinterface
+                code.writeShort(apply);
+                code.writeByte(3);
+                code.writeByte(0);
+                code.writeByte(0xc0); // checkcast
+                code.writeShort(pool.classRef(pool.utf8(type == 'L' ? fieldDescriptor.substring(1, fieldDescriptor.length() - 1) : fieldDescriptor)));
+            } else {
+                code.writeByte(0x2b); // aload_1
+                code.writeByte(0xb4); // getfield
+                code.writeShort(fieldRef);
+            }
+            code.writeByte(0xb5); // putfield
+            code.writeShort(fieldRef);
+        }
+        code.writeByte(0xb1); // return
+
+        int codeAttribute = pool.utf8("Code");
+        int descriptorIndex = pool.utf8(descriptor);
+        if (pool.count > 0xFFFF) return null;
+
+        // assemble
+        ByteArrayOutputStream out = new ByteArrayOutputStream(b.length + pool.bytes.size() + codeBytes.size() + 64);
+        DataOutputStream o = new DataOutputStream(out);
+        o.write(b, 0, 8);
+        o.writeShort(pool.count);
+        o.write(b, 10, cpEnd - 10);
+        pool.bytes.writeTo(out);
+        o.write(b, cpEnd, methodsCountPos - cpEnd);
+        o.writeShort(methodsCount + 1);
+        o.write(b, methodsCountPos + 2, methodsEnd - methodsCountPos - 2);
+        o.writeShort(ACC_PROTECTED | ACC_SYNTHETIC);
+        o.writeShort(init);
+        o.writeShort(descriptorIndex);
+        o.writeShort(1); // attributes
+        o.writeShort(codeAttribute);
+        o.writeInt(12 + codeBytes.size());
+        o.writeShort(4); // max stack: this, function, this, value
+        o.writeShort(3); // max locals: this, src, function
+        o.writeInt(codeBytes.size());
+        codeBytes.writeTo(out);
+        o.writeShort(0); // exception table
+        o.writeShort(0); // attributes
+        o.write(b, methodsEnd, b.length - methodsEnd);
+        return out.toByteArray();
+    }
+
+    /**
+     * minimal big endian class file reader
+     */
+    private static class Reader {
+        private final byte[] b;
+        private int pos;
+
+        Reader(byte[] b) {
+            this.b = b;
+        }
+
+        int u1() {
+            return b[pos++] & 0xFF;
+        }
+
+        int u2() {
+            return (u1() << 8) | u1();
+        }
+
+        long u4() {
+            return ((long) u2() << 16) | u2();
+        }
+
+        void skip(int n) {
+            pos += n;
+        }
+
+        String utf8() throws IOException {
+            int len = u2();
+            // modified UTF-8, exactly what DataInputStream reads
+            String s = new java.io.DataInputStream(new java.io.ByteArrayInputStream(b, pos - 2, len + 2)).readUTF();
+            pos += len;
+            return s;
+        }
+
+        void skipAttributes() {
+            int count = u2();
+            for (int i = 0; i < count; i++) {
+                skip(2);
+                skip((int) u4());
+            }
+        }
+    }
+
+    /**
+     * the constant pool entries appended to the existing ones
+     */
+    private static class Pool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count;
+
+        Pool(int count) {
+            this.count = count;
+        }
+
+        int utf8(String s) throws IOException {
+            out.writeByte(1);
+            out.writeUTF(s);
+            return count++;
+        }
+
+        int classRef(int name) throws IOException {
+            out.writeByte(7);
+            out.writeShort(name);
+            return count++;
+        }
+
+        int nameAndType(int name, int descriptor) throws IOException {
+            out.writeByte(12);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            return count++;
+        }
+
+        int fieldRef(int owner, int name, int descriptor) throws IOException {
+            return ref(9, owner, nameAndType(name, descriptor));
+        }
+
+        int methodRef(int owner, int name, int descriptor) throws IOException {
+            return ref(10, owner, nameAndType(name, descriptor));
+        }
+
+        int interfaceMethodRef(int owner, int name, int descriptor) throws IOException {
+            return ref(11, owner, nameAndType(name, descriptor));
+        }
+
+        private int ref(int tag, int owner, int nameAndType) throws IOException {
+            out.writeByte(tag);
+            out.writeShort(owner);
+            out.writeShort(nameAndType);
+            return count++;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.rits.cloning;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -15,6 +16,10 @@ public class FastClonerArrayList implements IFastCloner
 		ArrayList al = (ArrayList) t;
 		int size = al.size();
 		ArrayList l = new ArrayList(size);
+		if (cloner.clonesInParallel(size, clones)) {
+			Collections.addAll(l, cloner.deepCloneAll(al.toArray(), clones));
+			return l;
+		}
         for (Object o : al) {
             l.add(cloner.deepClone(o, clones));
         }
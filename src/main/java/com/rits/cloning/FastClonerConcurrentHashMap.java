@@ -14,6 +14,13 @@ public class FastClonerConcurrentHashMap implements IFastCloner
     public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
 		final ConcurrentHashMap<Object, Object> m = (ConcurrentHashMap) t;
 		final ConcurrentHashMap result = new ConcurrentHashMap();
+		if (cloner.clonesInParallel(2 * m.size(), clones)) {
+			final Object[] entries = cloner.deepCloneAll(FastClonerHashMap.entriesOf(m), clones);
+			for (int i = 0; i < entries.length; i += 2) {
+				result.put(entries[i], entries[i + 1]);
+			}
+			return result;
+		}
 		for (final Map.Entry e : m.entrySet()) {
 			result.put(cloner.deepClone(e.getKey(), clones), cloner.deepClone(e.getValue(), clones));
 		}
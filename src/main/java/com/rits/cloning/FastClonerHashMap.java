@@ -1,6 +1,11 @@
 package com.rits.cloning;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -10,13 +15,182 @@ import java.util.Map;
  */
 public class FastClonerHashMap implements IFastCloner
 {
+	// the load factor of HashMaps and the access order of LinkedHashMaps, null unless java.util is open to this library
+	private static final VarHandle LOAD_FACTOR = fieldOf(HashMap.class, "loadFactor", float.class);
+	private static final VarHandle ACCESS_ORDER = fieldOf(LinkedHashMap.class, "accessOrder", boolean.class);
+	// the load factor of HashMaps created without one
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
     public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
-		final HashMap<Object, Object> m = (HashMap) t;
-		final HashMap result = new HashMap();
-		for (final Map.Entry e : m.entrySet()) {
-			result.put(cloner.deepClone(e.getKey(), clones), cloner.deepClone(e.getValue(), clones));
+		return cloneEntries((HashMap) t, cloner, clones);
+	}
+
+	/**
+	 * deep clones a HashMap or a LinkedHashMap, keeping the order of its entries and, if java.util is open to this
+	 * library, its load factor and its access order. If the first key is immutable, i.e. its own clone, the clone
+	 * starts as a shallow copy sized for the entries, which then only get their values replaced without the keys being
+	 * rehashed. Otherwise the cloned entries are put into an empty map sized for them, so that each cloned key is
+	 * hashed once.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static HashMap<Object, Object> cloneEntries(final HashMap<Object, Object> m, final IDeepCloner cloner, final Map<Object, Object> clones)
+	{
+		final Iterator<Object> keys = m.keySet().iterator();
+		if (keys.hasNext()) {
+			final Object first = keys.next();
+			final Object firstClone = cloner.deepClone(first, clones);
+			if (firstClone != first) {
+				return rekeyed(m, firstClone, cloner, clones);
+			}
+		}
+		final HashMap<Object, Object> result = (HashMap) m.clone();
+		replaceValues(result, cloner, clones);
+		return result;
+	}
+
+	/**
+	 * puts the cloned entries of m into an empty map, the first one with firstClone, the clone of its key, which trees
+	 * of clones couldn't look up
+	 */
+	private static HashMap<Object, Object> rekeyed(final HashMap<Object, Object> m, final Object firstClone, final IDeepCloner cloner, final Map<Object, Object> clones)
+	{
+		final HashMap<Object, Object> result = emptyLike(m);
+		if (cloner.clonesInParallel(2 * m.size(), clones)) {
+			final Object[] entries = entriesOf(m);
+			// the first value, then the other keys each one followed by its value
+			final Object[] cloned = cloner.deepCloneAll(Arrays.copyOfRange(entries, 1, entries.length), clones);
+			result.put(firstClone, cloned[0]);
+			for (int i = 1; i < cloned.length; i += 2) {
+				result.put(cloned[i], cloned[i + 1]);
+			}
+		} else {
+			boolean first = true;
+			for (final Map.Entry<Object, Object> e : m.entrySet()) {
+				final Object key = first ? firstClone : cloner.deepClone(e.getKey(), clones);
+				result.put(key, cloner.deepClone(e.getValue(), clones));
+				first = false;
+			}
 		}
 		return result;
 	}
+
+	/**
+	 * @return an empty map of the class of m with its load factor and access order, sized for its entries. Unless
+	 * java.util is open to this library, the map gets the default load factor and insertion order instead, as copying
+	 * them through clone() would hash the keys of m once more
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static HashMap<Object, Object> emptyLike(final HashMap<Object, Object> m)
+	{
+		if (LOAD_FACTOR == null || ACCESS_ORDER == null) {
+			final int capacity = capacityFor(m.size(), DEFAULT_LOAD_FACTOR);
+			return m instanceof LinkedHashMap ? new LinkedHashMap<>(capacity) : new HashMap<>(capacity);
+		}
+		final float loadFactor = loadFactorOf(m);
+		final int capacity = capacityFor(m.size(), loadFactor);
+		return m instanceof LinkedHashMap
+				? new LinkedHashMap<>(capacity, loadFactor, (boolean) ACCESS_ORDER.get((LinkedHashMap) m))
+				: new HashMap<>(capacity, loadFactor);
+	}
+
+	/**
+	 * @return the load factor of m, NaN if java.util isn't open to this library
+	 */
+	static float loadFactorOf(final HashMap<?, ?> m)
+	{
+		return LOAD_FACTOR == null ? Float.NaN : (float) LOAD_FACTOR.get(m);
+	}
+
+	/**
+	 * @return the initial capacity for size entries not to resize the table
+	 */
+	static int capacityFor(final int size, final float loadFactor)
+	{
+		return (int) Math.min(Math.ceil(size / (double) loadFactor), 1 << 30);
+	}
+
+	/**
+	 * @return the handle of a private field of java.util, null if java.util isn't open to this library
+	 */
+	static VarHandle fieldOf(final Class<?> c, final String name, final Class<?> type)
+	{
+		try {
+			return MethodHandles.privateLookupIn(c, MethodHandles.lookup()).findVarHandle(c, name, type);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * deep clones the keys and values of a shallow copy in place, keeping its order. As long as the keys are
+	 * immutable only the values of the entries are replaced; the entries from the first key that is not are put again
+	 * with their cloned keys.
+	 */
+	private static void replaceValues(final Map<Object, Object> result, final IDeepCloner cloner, final Map<Object, Object> clones)
+	{
+		if (cloner.clonesInParallel(2 * result.size(), clones)) {
+			final Object[] entries = entriesOf(result);
+			final Object[] cloned = cloner.deepCloneAll(entries, clones);
+			int i = 0;
+			for (final Map.Entry<Object, Object> e : result.entrySet()) {
+				if (cloned[i] != entries[i]) break;
+				e.setValue(cloned[i + 1]);
+				i += 2;
+			}
+			for (int j = i; j < entries.length; j += 2) {
+				result.remove(entries[j]);
+			}
+			for (int j = i; j < cloned.length; j += 2) {
+				result.put(cloned[j], cloned[j + 1]);
+			}
+			return;
+		}
+		// original key, cloned key and cloned value of the entries to put again
+		Object[] rekeyed = null;
+		int n = 0;
+		int i = 0;
+		for (final Map.Entry<Object, Object> e : result.entrySet()) {
+			final Object key = e.getKey();
+			final Object clonedKey = cloner.deepClone(key, clones);
+			final Object clonedValue = cloner.deepClone(e.getValue(), clones);
+			if (rekeyed == null && clonedKey == key) {
+				// neither rehashes nor counts as an access of access ordered LinkedHashMaps
+				e.setValue(clonedValue);
+			} else {
+				if (rekeyed == null) rekeyed = new Object[3 * (result.size() - i)];
+				rekeyed[n++] = key;
+				rekeyed[n++] = clonedKey;
+				rekeyed[n++] = clonedValue;
+			}
+			i++;
+		}
+		if (rekeyed != null) {
+			// the tail of the order, which stays in place once put again
+			for (int j = 0; j < n; j += 3) {
+				result.remove(rekeyed[j]);
+			}
+			for (int j = 0; j < n; j += 3) {
+				result.put(rekeyed[j + 1], rekeyed[j + 2]);
+			}
+		}
+	}
+
+	/**
+	 * @return the keys of m, each one followed by its value
+	 */
+	static Object[] entriesOf(final Map<Object, Object> m)
+	{
+		Object[] entries = new Object[2 * m.size()];
+		int i = 0;
+		for (final Map.Entry<Object, Object> e : m.entrySet()) {
+			if (i == entries.length) {
+				// concurrent maps may grow meanwhile
+				entries = Arrays.copyOf(entries, 2 * i + 2);
+			}
+			entries[i++] = e.getKey();
+			entries[i++] = e.getValue();
+		}
+		return i == entries.length ? entries : Arrays.copyOf(entries, i);
+	}
 }
@@ -1,6 +1,12 @@
 package com.rits.cloning;
 
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 /**
@@ -10,14 +16,67 @@ import java.util.Map;
  */
 public class FastClonerHashSet implements IFastCloner
 {
+	// the map backing HashSets, null unless java.util is open to this library
+	private static final VarHandle MAP = FastClonerHashMap.fieldOf(HashSet.class, "map", HashMap.class);
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
     public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
-		final HashSet al = (HashSet) t;
-		final HashSet l = new HashSet();
-		for (final Object o : al)
-		{
-			l.add(cloner.deepClone(o, clones));
+		return cloneElements((HashSet) t, cloner, clones);
+	}
+
+	/**
+	 * deep clones a HashSet or a LinkedHashSet, keeping its order and, if java.util is open to this library, its load
+	 * factor. If the first element is immutable, i.e. its own clone, the clone starts as a shallow copy sized for the
+	 * elements, which is refilled only if another element isn't. Otherwise the cloned elements are added to an empty
+	 * set sized for them, so that each one is hashed once.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static HashSet<Object> cloneElements(final HashSet<Object> s, final IDeepCloner cloner, final Map<Object, Object> clones)
+	{
+		final Iterator<Object> it = s.iterator();
+		if (it.hasNext()) {
+			final Object first = it.next();
+			final Object firstClone = cloner.deepClone(first, clones);
+			if (firstClone != first) {
+				// reuses firstClone, which trees of clones couldn't look up
+				final HashSet<Object> result = emptyLike(s);
+				result.add(firstClone);
+				if (cloner.clonesInParallel(s.size(), clones)) {
+					final Object[] elements = s.toArray();
+					Collections.addAll(result, cloner.deepCloneAll(Arrays.copyOfRange(elements, 1, elements.length), clones));
+				} else {
+					while (it.hasNext()) {
+						result.add(cloner.deepClone(it.next(), clones));
+					}
+				}
+				return result;
+			}
+		}
+		final HashSet<Object> result = (HashSet) s.clone();
+		final Object[] elements = result.toArray();
+		final Object[] cloned = cloner.deepCloneAll(elements, clones);
+		for (int i = 0; i < cloned.length; i++) {
+			if (cloned[i] != elements[i]) {
+				result.clear();
+				Collections.addAll(result, cloned);
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return an empty set of the class of s with its load factor, sized for its elements. Unless java.util is open
+	 * to this library, the set gets the default load factor instead
+	 */
+	@SuppressWarnings({ "rawtypes" })
+	private static HashSet<Object> emptyLike(final HashSet<Object> s)
+	{
+		float loadFactor = MAP == null ? Float.NaN : FastClonerHashMap.loadFactorOf((HashMap) MAP.get(s));
+		if (Float.isNaN(loadFactor)) {
+			loadFactor = FastClonerHashMap.DEFAULT_LOAD_FACTOR;
 		}
-		return l;
+		final int capacity = FastClonerHashMap.capacityFor(s.size(), loadFactor);
+		return s instanceof LinkedHashSet ? new LinkedHashSet<>(capacity, loadFactor) : new HashSet<>(capacity, loadFactor);
 	}
 }
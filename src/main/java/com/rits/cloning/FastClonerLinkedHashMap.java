@@ -11,11 +11,7 @@ import java.util.Map;
 public class FastClonerLinkedHashMap implements IFastCloner {
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
-		final LinkedHashMap<?, ?> al = (LinkedHashMap) t;
-		final LinkedHashMap result = new LinkedHashMap();
-		for (final Map.Entry e : al.entrySet()) {
-			result.put(cloner.deepClone(e.getKey(), clones), cloner.deepClone(e.getValue(), clones));
-		}
-		return result;
+		// keeps the load factor and the access order, along with the order of the entries
+		return FastClonerHashMap.cloneEntries((LinkedHashMap) t, cloner, clones);
 	}
 }
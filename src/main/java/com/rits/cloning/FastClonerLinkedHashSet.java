@@ -13,12 +13,6 @@ public class FastClonerLinkedHashSet implements IFastCloner
 	@Override
 	@SuppressWarnings({ "unchecked", "rawtypes" })
     public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
-		final LinkedHashSet<?> al = (LinkedHashSet) t;
-		final LinkedHashSet l = new LinkedHashSet();
-		for (final Object o : al)
-		{
-			l.add(cloner.deepClone(o, clones));
-		}
-		return l;
+		return FastClonerHashSet.cloneElements((LinkedHashSet) t, cloner, clones);
 	}
 }
@@ -0,0 +1,18 @@
+package com.rits.cloning;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Optional is immutable, but its value may not be: it is only copied if its value had to be cloned
+ */
+public class FastClonerOptional implements IFastCloner {
+    public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones) {
+        final Optional<?> optional = (Optional<?>) t;
+        if (optional.isEmpty() || clones == null) return optional;
+        final Object value = optional.get();
+        final Object clone = cloner.deepClone(value, clones);
+        if (clone == value) return optional;
+        return Optional.ofNullable(clone);
+    }
+}
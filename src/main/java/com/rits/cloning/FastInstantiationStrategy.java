@@ -0,0 +1,159 @@
+package com.rits.cloning;
+
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+/**
+ * Instantiates classes through their no-arg constructor where it can be called, and through Objenesis otherwise. Each
+ * class is probed once for the fastest route available, see {@link Route}, which {@link #getRoute} tells.
+ * <p>
+ * NOTE: unlike Objenesis, this runs the no-arg constructor for every clone, along with its side effects. Only use it
+ * for classes whose constructors do no more than initialize fields, which the cloner then overwrites anyway.
+ */
+public class FastInstantiationStrategy implements IInstantiationStrategy
+{
+	/**
+	 * How the instances of a class are created, from the fastest.
+	 */
+	public enum Route
+	{
+		// a class implementing ObjectInstantiator by calling the constructor, generated by LambdaMetafactory
+		FACTORY,
+		// the constructor method handle, i.e. when the class can't be extended by a generated one
+		CONSTRUCTOR,
+		// the fallback strategy, for classes without a no-arg constructor we can call
+		OBJENESIS
+	}
+
+	private static final MethodType FACTORY_TYPE = MethodType.methodType(ObjectInstantiator.class);
+	private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(Object.class);
+
+	private final IInstantiationStrategy fallback;
+
+	private final ClassValue<Probe> probes = new ClassValue<Probe>()
+	{
+		@Override
+		protected Probe computeValue(Class<?> c)
+		{
+			return probe(c);
+		}
+	};
+
+	public FastInstantiationStrategy()
+	{
+		this(ObjenesisInstantiationStrategy.getInstance());
+	}
+
+	/**
+	 * @param fallback instantiates the classes without a no-arg constructor we can call
+	 */
+	public FastInstantiationStrategy(final IInstantiationStrategy fallback)
+	{
+		this.fallback = fallback;
+	}
+
+	private static final class Probe
+	{
+		final Route route;
+		final ObjectInstantiator<?> instantiator;
+
+		Probe(final Route route, final ObjectInstantiator<?> instantiator)
+		{
+			this.route = route;
+			this.instantiator = instantiator;
+		}
+	}
+
+	private static final class ConstructorInstantiator implements ObjectInstantiator<Object>
+	{
+		private final MethodHandle constructor;
+
+		ConstructorInstantiator(final MethodHandle constructor)
+		{
+			this.constructor = constructor;
+		}
+
+		public Object newInstance()
+		{
+			try
+			{
+				return constructor.invokeExact();
+			} catch (RuntimeException | Error e)
+			{
+				throw e;
+			} catch (Throwable t)
+			{
+				throw new CloningException("Failed to instantiate " + constructor.type(), t);
+			}
+		}
+	}
+
+	private Probe probe(final Class<?> c)
+	{
+		if (c.isInterface() || c.isArray() || c.isPrimitive() || Modifier.isAbstract(c.getModifiers()))
+		{
+			return new Probe(Route.OBJENESIS, fallback.getInstantiatorOf(c));
+		}
+		final MethodHandles.Lookup lookup;
+		final MethodHandle constructor;
+		try
+		{
+			lookup = MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+			constructor = lookup.findConstructor(c, MethodType.methodType(void.class));
+		} catch (IllegalAccessException | NoSuchMethodException | RuntimeException e)
+		{
+			// no no-arg constructor, or in a module which isn't open to us
+			return new Probe(Route.OBJENESIS, fallback.getInstantiatorOf(c));
+		}
+		try
+		{
+			final MethodHandle factory = LambdaMetafactory.metafactory(lookup, "newInstance", FACTORY_TYPE,
+					NEW_INSTANCE_TYPE, constructor, MethodType.methodType(c)).getTarget();
+			return new Probe(Route.FACTORY, (ObjectInstantiator<?>) factory.invoke());
+		} catch (Throwable t)
+		{
+			// i.e. the class loader of c doesn't see ObjectInstantiator, or the lookup lacks full privilege access
+		}
+		return new Probe(Route.CONSTRUCTOR, new ConstructorInstantiator(constructor.asType(NEW_INSTANCE_TYPE)));
+	}
+
+	/**
+	 * @return how the instances of c are created
+	 */
+	public Route getRoute(final Class<?> c)
+	{
+		return probes.get(c).route;
+	}
+
+	public <T> T newInstance(final Class<T> c)
+	{
+		return getInstantiatorOf(c).newInstance();
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> ObjectInstantiator<T> getInstantiatorOf(final Class<T> c)
+	{
+		return (ObjectInstantiator<T>) probes.get(c).instantiator;
+	}
+
+	@Override
+	public boolean instantiatesBlank(final Class<?> c)
+	{
+		return probes.get(c).route == Route.OBJENESIS && fallback.instantiatesBlank(c);
+	}
+
+	private static final FastInstantiationStrategy instance = new FastInstantiationStrategy();
+
+	/**
+	 * @return a shared instance, so that the cloners using it share their plans
+	 */
+	public static FastInstantiationStrategy getInstance()
+	{
+		return instance;
+	}
+}
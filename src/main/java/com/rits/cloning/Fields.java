@@ -1,11 +1,16 @@
 package com.rits.cloning;
 
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,8 +19,10 @@ import java.util.Map;
  * <p>The access method can be specified via the {@code com.rits.cloning.Fields.accessor} system-property setting to:
  * <ul>
  *     <li>{@code auto} - (default) auto-select best available accessor</li>
- *     <li>{@code handles} - fast, but requires {@code --add-opens} to access JDK internal fields; falls back on {@code reflection} to set {@code final}s</li>
+ *     <li>{@code handles} - fast, but requires {@code --add-opens} to access JDK internal fields; sets {@code final}s through setters resolved once per field</li>
  *     <li>{@code reflection} - legacy approach, but requires {@code --add-opens} to access JDK internal fields</li>
+ *     <li>{@code unsafe} - fastest, reads and writes fields (including {@code final}s) by offset via {@code sun.misc.Unsafe}
+ *     and copies adjacent primitive fields as blocks; falls back on {@code handles} for records and hidden classes</li>
  * </ul>
  *
  * <p>These APIs are considered low level and is intentionally restricted to package-private access. Mismatching objects
@@ -31,7 +38,8 @@ class Fields {
     private enum AccessorType {
         AUTO,
         HANDLES,
-        REFLECTION;
+        REFLECTION,
+        UNSAFE;
 
         /**
          * @return the {@link Accessor} of the specified {@link AccessorType} or closest available match.
@@ -44,6 +52,14 @@ class Fields {
                     return (Accessor) VarHandleAccessor.INSTANCE;
                 case REFLECTION:
                     return (Accessor) ReflectionAccessor.INSTANCE;
+                case UNSAFE:
+                    try {
+                        UnsafeOps.ensureInitialized();
+                        return (Accessor) UnsafeAccessor.INSTANCE;
+                    } catch (LinkageError e) {
+                        // sun.misc.Unsafe is missing or not resolvable
+                        return (Accessor) VarHandleAccessor.INSTANCE;
+                    }
                 default:
                     throw new IllegalArgumentException("Unknown accessor type: " + type);
             }
@@ -104,6 +120,96 @@ class Fields {
          * @param dst the destination object
          */
         void copy(Field field, C cookie, Object src, Object dst) throws IllegalAccessException;
+
+        /**
+         * Return a {@link BlockCopier} copying all of the specified primitive, non-{@code volatile} fields at once.
+         *
+         * @param fields the instance fields to copy, all declared by the same class or its super classes
+         * @return the copier, or null if this accessor can't copy fields as blocks
+         */
+        default BlockCopier getBlockCopier(List<Field> fields) {
+            return null;
+        }
+
+        /**
+         * Return a {@link Copier} specialized for the type and modifiers of the specified instance field.
+         *
+         * @param field the field to copy
+         * @param cookie the field {@link #getCookie cookie}
+         * @return the copier
+         */
+        default Copier getCopier(Field field, C cookie) {
+            return (src, dst) -> copy(field, cookie, src, dst);
+        }
+
+        /**
+         * Return a {@link Getter} specialized for the type and modifiers of the specified instance field.
+         *
+         * @param field the field to get
+         * @param cookie the field {@link #getCookie cookie}
+         * @return the getter
+         */
+        default Getter getGetter(Field field, C cookie) {
+            return src -> get(field, cookie, src);
+        }
+
+        /**
+         * Return a {@link Setter} specialized for the type and modifiers of the specified instance field.
+         *
+         * @param field the field to set
+         * @param cookie the field {@link #getCookie cookie}
+         * @return the setter
+         */
+        default Setter getSetter(Field field, C cookie) {
+            return (dst, value) -> set(field, cookie, dst, value);
+        }
+
+        /**
+         * Return how this accessor reads and writes the specified field, for {@link Cloner#explain}.
+         *
+         * @param field the field
+         * @param cookie the field {@link #getCookie cookie}
+         * @return the name of the access tier
+         */
+        String getTier(Field field, C cookie);
+    }
+
+    /**
+     * Copies a fixed set of primitive fields from one object to another.
+     */
+    @FunctionalInterface
+    interface BlockCopier {
+        /**
+         * Copy the fields from the source to the destination object.
+         *
+         * @param src the source object
+         * @param dst the destination object
+         */
+        void copy(Object src, Object dst);
+    }
+
+    /**
+     * Copies a single field from one object to another.
+     */
+    @FunctionalInterface
+    interface Copier {
+        void copy(Object src, Object dst) throws IllegalAccessException;
+    }
+
+    /**
+     * Reads a single field of an object.
+     */
+    @FunctionalInterface
+    interface Getter {
+        Object get(Object src) throws IllegalAccessException;
+    }
+
+    /**
+     * Writes a single field of an object.
+     */
+    @FunctionalInterface
+    interface Setter {
+        void set(Object dst, Object value) throws IllegalAccessException;
     }
 
     @FunctionalInterface
@@ -128,6 +234,11 @@ class Fields {
             return field;
         }
 
+        @Override
+        public String getTier(Field field, Field cookie) {
+            return "reflection";
+        }
+
         @Override
         public Object get(Field field, Field cookie, Object src) throws IllegalAccessException {
             return cookie.get(src);
@@ -152,31 +263,103 @@ class Fields {
             else if (t == short.class  ) cookie.setShort  (dst, cookie.getShort  (src));
             else                         cookie.set       (dst, cookie.get       (src));
         }
+
+        @Override
+        public Copier getCopier(Field field, Field f) {
+            Class<?> t = field.getType();
+            if      (!t.isPrimitive()  ) return (src, dst) -> f.set       (dst, f.get       (src));
+            else if (t == int.class    ) return (src, dst) -> f.setInt    (dst, f.getInt    (src));
+            else if (t == long.class   ) return (src, dst) -> f.setLong   (dst, f.getLong   (src));
+            else if (t == boolean.class) return (src, dst) -> f.setBoolean(dst, f.getBoolean(src));
+            else if (t == double.class ) return (src, dst) -> f.setDouble (dst, f.getDouble (src));
+            else if (t == float.class  ) return (src, dst) -> f.setFloat  (dst, f.getFloat  (src));
+            else if (t == char.class   ) return (src, dst) -> f.setChar   (dst, f.getChar   (src));
+            else if (t == byte.class   ) return (src, dst) -> f.setByte   (dst, f.getByte   (src));
+            else                         return (src, dst) -> f.setShort  (dst, f.getShort  (src));
+        }
+
+        @Override
+        public Getter getGetter(Field field, Field f) {
+            return f::get;
+        }
+
+        @Override
+        public Setter getSetter(Field field, Field f) {
+            return f::set;
+        }
     }
 
     /**
      * {@link VarHandle} implementation of {@link Accessor} avoiding per invocation access checks made with reflection.
+     *
+     * <p>{@link VarHandle}s can't update {@code final} fields; those are written through a setter
+     * {@link MethodHandle} unreflected once from the accessible field, or through that field itself if the JDK doesn't
+     * allow such a setter (i.e. static finals, records and hidden classes).
      */
-    private static class VarHandleAccessor implements Accessor<VarHandle> {
+    private static class VarHandleAccessor implements Accessor<VarHandleAccessor.Handle> {
         private static final VarHandleAccessor INSTANCE = new VarHandleAccessor();
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
 
         /**
-         * Mapping of fields to their {@link VarHandle} for a given class.
+         * The handles of a field.
          */
-        private final ClassValue<Map<Field, VarHandle>> handleByField = new ClassValue<>() {
+        static final class Handle {
+            final VarHandle handle;
+            final boolean isFinal;
+            /**
+             * The accessible field, for {@code final}s without a {@link #finalSetter}.
+             */
+            final Field field;
+            /**
+             * {@code (Object dst, Object value)void} setter of a {@code final} field, null otherwise.
+             */
+            final MethodHandle finalSetter;
+            /**
+             * {@code (Object src, Object dst)void} copier of a {@code final} field, null otherwise.
+             */
+            final MethodHandle finalCopier;
+
+            Handle(Field field, VarHandle handle, MethodHandle finalSetter, MethodHandle finalCopier) {
+                this.handle = handle;
+                this.isFinal = Modifier.isFinal(field.getModifiers());
+                this.field = field;
+                this.finalSetter = finalSetter;
+                this.finalCopier = finalCopier;
+            }
+        }
+
+        /**
+         * Mapping of fields to their {@link Handle} for a given class.
+         */
+        private final ClassValue<Map<Field, Handle>> handleByField = new ClassValue<>() {
             /**
              * The {@link MethodHandles.Lookup} used to find {@link VarHandle}s.
              */
             private final MethodHandles.Lookup lookup = MethodHandles.lookup();
 
             @Override
-            protected Map<Field, VarHandle> computeValue(Class<?> clz) {
-                Map<Field, VarHandle> map = new HashMap<>();
+            protected Map<Field, Handle> computeValue(Class<?> clz) {
+                Map<Field, Handle> map = new HashMap<>();
                 try {
                     MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clz, this.lookup);
                     for (Field f : clz.getDeclaredFields()) {
                         f.trySetAccessible();
-                        map.put(f, lookup.unreflectVarHandle(f));
+                        MethodHandle setter = null;
+                        MethodHandle copier = null;
+                        if (Modifier.isFinal(f.getModifiers()) && !Modifier.isStatic(f.getModifiers())) {
+                            try {
+                                // allowed for accessible, non-static finals: setAccessible(true) is their access check
+                                MethodHandle s = lookup.unreflectSetter(f);
+                                // dst.f = src.f, as (src, dst)
+                                copier = MethodHandles.permuteArguments(
+                                        MethodHandles.filterArguments(s, 1, lookup.unreflectGetter(f)),
+                                        MethodType.methodType(void.class, clz, clz), 1, 0).asType(SETTER_TYPE);
+                                setter = s.asType(SETTER_TYPE);
+                            } catch (IllegalAccessException e) {
+                                // records and hidden classes, writes fail through reflection as well
+                            }
+                        }
+                        map.put(f, new Handle(f, lookup.unreflectVarHandle(f), setter, copier));
                     }
                 } catch (IllegalAccessException e) {
                     throw new CloningException(String.format("No access to class %s from context %s", clz.getName(), lookup.lookupClass().getModule()), e);
@@ -187,12 +370,19 @@ class Fields {
         };
 
         @Override
-        public VarHandle getCookie(Field field) {
+        public Handle getCookie(Field field) {
             return handleWithContext(field, () -> handleByField.get(field.getDeclaringClass()).get(field));
         }
 
         @Override
-        public Object get(Field field, VarHandle h, Object src) {
+        public String getTier(Field field, Handle cookie) {
+            if (!cookie.isFinal) return "var handle";
+            return cookie.finalSetter != null ? "final field setter handle" : "final field reflection fallback";
+        }
+
+        @Override
+        public Object get(Field field, Handle cookie, Object src) {
+            VarHandle h = cookie.handle;
             boolean v = Modifier.isVolatile(field.getModifiers());
             return src == null
                     ? v ? h.getVolatile()    : h.get()
@@ -200,29 +390,37 @@ class Fields {
         }
 
         @Override
-        public void set(Field field, VarHandle h, Object dst, Object value) throws IllegalAccessException {
+        public void set(Field field, Handle cookie, Object dst, Object value) throws IllegalAccessException {
             // note we don't need volatile writes during cloning as dst is not yet visible to other threads
-            if (Modifier.isFinal(field.getModifiers())) { // VarHandle can't update finals; fall back on reflection
-                ReflectionAccessor.INSTANCE.set(field, ReflectionAccessor.INSTANCE.getCookie(field), dst, value);
+            if (cookie.isFinal) { // VarHandle can't update finals
+                if (cookie.finalSetter != null) {
+                    invoke(cookie.finalSetter, dst, value);
+                } else {
+                    cookie.field.set(dst, value);
+                }
             } else if (dst == null) {
-                h.set(value);
+                cookie.handle.set(value);
             } else {
-                h.set(dst, value);
+                cookie.handle.set(dst, value);
             }
         }
 
         @Override
-        public void copy(Field field, VarHandle hand, Object src, Object dst) throws IllegalAccessException {
-            int mods = field.getModifiers();
-            if (Modifier.isFinal(mods)) { // VarHandle can't update finals; fall back on reflection
-                ReflectionAccessor.INSTANCE.copy(field, ReflectionAccessor.INSTANCE.getCookie(field), src, dst);
+        public void copy(Field field, Handle cookie, Object src, Object dst) throws IllegalAccessException {
+            if (cookie.isFinal) { // VarHandle can't update finals
+                if (cookie.finalCopier != null) {
+                    invoke(cookie.finalCopier, src, dst);
+                } else {
+                    ReflectionAccessor.INSTANCE.copy(field, cookie.field, src, dst);
+                }
                 return;
             }
 
             // note: we don't need volatile writes during cloning as dst is not yet visible to other threads; volatile
             // reads are still performed as the source may be visible to other threads
+            VarHandle hand = cookie.handle;
             Class<?> t = field.getType();
-            boolean v = Modifier.isVolatile(mods);
+            boolean v = Modifier.isVolatile(field.getModifiers());
 
             // the seemingly needless casts allow VarHandle to optimize out the autoboxing and its garbage
             if      (!t.isPrimitive()  ) hand.set(dst, v ?           hand.getVolatile(src) :           hand.get(src));
@@ -236,15 +434,289 @@ class Fields {
             else if (t == short.class  ) hand.set(dst, v ?   (short) hand.getVolatile(src) :   (short) hand.get(src));
             else                         hand.set(dst, v ?           hand.getVolatile(src) :           hand.get(src));
         }
+
+        @Override
+        public Copier getCopier(Field field, Handle cookie) {
+            if (cookie.isFinal) {
+                MethodHandle copier = cookie.finalCopier;
+                return copier != null
+                        ? (src, dst) -> invoke(copier, src, dst)
+                        : ReflectionAccessor.INSTANCE.getCopier(field, cookie.field);
+            }
+            VarHandle h = cookie.handle;
+            Class<?> t = field.getType();
+            if (Modifier.isVolatile(field.getModifiers())) {
+                if      (!t.isPrimitive()  ) return (src, dst) -> h.set(dst,           h.getVolatile(src));
+                else if (t == int.class    ) return (src, dst) -> h.set(dst,     (int) h.getVolatile(src));
+                else if (t == long.class   ) return (src, dst) -> h.set(dst,    (long) h.getVolatile(src));
+                else if (t == boolean.class) return (src, dst) -> h.set(dst, (boolean) h.getVolatile(src));
+                else if (t == double.class ) return (src, dst) -> h.set(dst,  (double) h.getVolatile(src));
+                else if (t == float.class  ) return (src, dst) -> h.set(dst,   (float) h.getVolatile(src));
+                else if (t == char.class   ) return (src, dst) -> h.set(dst,    (char) h.getVolatile(src));
+                else if (t == byte.class   ) return (src, dst) -> h.set(dst,    (byte) h.getVolatile(src));
+                else                         return (src, dst) -> h.set(dst,   (short) h.getVolatile(src));
+            }
+            if      (!t.isPrimitive()  ) return (src, dst) -> h.set(dst,           h.get(src));
+            else if (t == int.class    ) return (src, dst) -> h.set(dst,     (int) h.get(src));
+            else if (t == long.class   ) return (src, dst) -> h.set(dst,    (long) h.get(src));
+            else if (t == boolean.class) return (src, dst) -> h.set(dst, (boolean) h.get(src));
+            else if (t == double.class ) return (src, dst) -> h.set(dst,  (double) h.get(src));
+            else if (t == float.class  ) return (src, dst) -> h.set(dst,   (float) h.get(src));
+            else if (t == char.class   ) return (src, dst) -> h.set(dst,    (char) h.get(src));
+            else if (t == byte.class   ) return (src, dst) -> h.set(dst,    (byte) h.get(src));
+            else                         return (src, dst) -> h.set(dst,   (short) h.get(src));
+        }
+
+        @Override
+        public Getter getGetter(Field field, Handle cookie) {
+            VarHandle h = cookie.handle;
+            return Modifier.isVolatile(field.getModifiers()) ? h::getVolatile : h::get;
+        }
+
+        @Override
+        public Setter getSetter(Field field, Handle cookie) {
+            if (cookie.isFinal) {
+                MethodHandle setter = cookie.finalSetter;
+                return setter != null ? (dst, value) -> invoke(setter, dst, value) : cookie.field::set;
+            }
+            VarHandle h = cookie.handle;
+            return h::set;
+        }
+
+        private static void invoke(MethodHandle h, Object a, Object b) {
+            try {
+                h.invokeExact(a, b);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) { // setters and getters don't throw checked exceptions
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    /**
+     * {@code sun.misc.Unsafe} implementation of {@link Accessor} reading and writing fields by offset, through
+     * {@link UnsafeOps}. {@code final} fields are written directly, without falling back on reflection, and adjacent
+     * primitive fields are copied as blocks of words rather than one field at a time.
+     *
+     * <p>Records and hidden classes have no field offsets; their fields are accessed via {@link VarHandleAccessor}.
+     */
+    private static class UnsafeAccessor implements Accessor<UnsafeAccessor.Slot> {
+        private static final UnsafeAccessor INSTANCE = new UnsafeAccessor();
+
+        /**
+         * The location of a field.
+         */
+        static final class Slot {
+            /**
+             * The object holding static fields, null for instance fields.
+             */
+            final Object base;
+            final long offset;
+            final Class<?> type;
+            final boolean isVolatile;
+            /**
+             * The {@link VarHandleAccessor} cookie if the field has no offset, null otherwise.
+             */
+            final VarHandleAccessor.Handle fallback;
+
+            Slot(Field field, Object base, long offset, VarHandleAccessor.Handle fallback) {
+                this.base = base;
+                this.offset = offset;
+                this.type = field.getType();
+                this.isVolatile = Modifier.isVolatile(field.getModifiers());
+                this.fallback = fallback;
+            }
+        }
+
+        @Override
+        public Slot getCookie(Field field) {
+            try {
+                return Modifier.isStatic(field.getModifiers())
+                        ? new Slot(field, UnsafeOps.staticFieldBase(field), UnsafeOps.staticFieldOffset(field), null)
+                        : new Slot(field, null, UnsafeOps.objectFieldOffset(field), null);
+            } catch (UnsupportedOperationException e) { // records and hidden classes
+                return new Slot(field, null, -1, VarHandleAccessor.INSTANCE.getCookie(field));
+            }
+        }
+
+        @Override
+        public String getTier(Field field, Slot s) {
+            return s.fallback != null ? VarHandleAccessor.INSTANCE.getTier(field, s.fallback) : "unsafe";
+        }
+
+        @Override
+        public Object get(Field field, Slot s, Object src) {
+            if (s.fallback != null) return VarHandleAccessor.INSTANCE.get(field, s.fallback, src);
+            Object o = src == null ? s.base : src;
+            long off = s.offset;
+            Class<?> t = s.type;
+            boolean v = s.isVolatile;
+            if      (!t.isPrimitive()  ) return v ? UnsafeOps.getObjectVolatile (o, off) : UnsafeOps.getObject (o, off);
+            else if (t == int.class    ) return v ? UnsafeOps.getIntVolatile    (o, off) : UnsafeOps.getInt    (o, off);
+            else if (t == long.class   ) return v ? UnsafeOps.getLongVolatile   (o, off) : UnsafeOps.getLong   (o, off);
+            else if (t == boolean.class) return v ? UnsafeOps.getBooleanVolatile(o, off) : UnsafeOps.getBoolean(o, off);
+            else if (t == double.class ) return v ? UnsafeOps.getDoubleVolatile (o, off) : UnsafeOps.getDouble (o, off);
+            else if (t == float.class  ) return v ? UnsafeOps.getFloatVolatile  (o, off) : UnsafeOps.getFloat  (o, off);
+            else if (t == char.class   ) return v ? UnsafeOps.getCharVolatile   (o, off) : UnsafeOps.getChar   (o, off);
+            else if (t == byte.class   ) return v ? UnsafeOps.getByteVolatile   (o, off) : UnsafeOps.getByte   (o, off);
+            else                         return v ? UnsafeOps.getShortVolatile  (o, off) : UnsafeOps.getShort  (o, off);
+        }
+
+        @Override
+        public void set(Field field, Slot s, Object dst, Object value) throws IllegalAccessException {
+            if (s.fallback != null) {
+                VarHandleAccessor.INSTANCE.set(field, s.fallback, dst, value);
+                return;
+            }
+            // note we don't need volatile writes during cloning as dst is not yet visible to other threads
+            Object o = dst == null ? s.base : dst;
+            long off = s.offset;
+            Class<?> t = s.type;
+            if      (!t.isPrimitive()  ) UnsafeOps.putObject (o, off, t.cast(value));
+            else if (t == int.class    ) UnsafeOps.putInt    (o, off, (Integer)   value);
+            else if (t == long.class   ) UnsafeOps.putLong   (o, off, (Long)      value);
+            else if (t == boolean.class) UnsafeOps.putBoolean(o, off, (Boolean)   value);
+            else if (t == double.class ) UnsafeOps.putDouble (o, off, (Double)    value);
+            else if (t == float.class  ) UnsafeOps.putFloat  (o, off, (Float)     value);
+            else if (t == char.class   ) UnsafeOps.putChar   (o, off, (Character) value);
+            else if (t == byte.class   ) UnsafeOps.putByte   (o, off, (Byte)      value);
+            else                         UnsafeOps.putShort  (o, off, (Short)     value);
+        }
+
+        @Override
+        public void copy(Field field, Slot s, Object src, Object dst) throws IllegalAccessException {
+            if (s.fallback != null) {
+                VarHandleAccessor.INSTANCE.copy(field, s.fallback, src, dst);
+                return;
+            }
+            long off = s.offset;
+            Class<?> t = s.type;
+            boolean v = s.isVolatile;
+            if      (!t.isPrimitive()  ) UnsafeOps.putObject (dst, off, v ? UnsafeOps.getObjectVolatile (src, off) : UnsafeOps.getObject (src, off));
+            else if (t == int.class    ) UnsafeOps.putInt    (dst, off, v ? UnsafeOps.getIntVolatile    (src, off) : UnsafeOps.getInt    (src, off));
+            else if (t == long.class   ) UnsafeOps.putLong   (dst, off, v ? UnsafeOps.getLongVolatile   (src, off) : UnsafeOps.getLong   (src, off));
+            else if (t == boolean.class) UnsafeOps.putBoolean(dst, off, v ? UnsafeOps.getBooleanVolatile(src, off) : UnsafeOps.getBoolean(src, off));
+            else if (t == double.class ) UnsafeOps.putDouble (dst, off, v ? UnsafeOps.getDoubleVolatile (src, off) : UnsafeOps.getDouble (src, off));
+            else if (t == float.class  ) UnsafeOps.putFloat  (dst, off, v ? UnsafeOps.getFloatVolatile  (src, off) : UnsafeOps.getFloat  (src, off));
+            else if (t == char.class   ) UnsafeOps.putChar   (dst, off, v ? UnsafeOps.getCharVolatile   (src, off) : UnsafeOps.getChar   (src, off));
+            else if (t == byte.class   ) UnsafeOps.putByte   (dst, off, v ? UnsafeOps.getByteVolatile   (src, off) : UnsafeOps.getByte   (src, off));
+            else                         UnsafeOps.putShort  (dst, off, v ? UnsafeOps.getShortVolatile  (src, off) : UnsafeOps.getShort  (src, off));
+        }
+
+        @Override
+        public Copier getCopier(Field field, Slot s) {
+            if (s.fallback != null) return VarHandleAccessor.INSTANCE.getCopier(field, s.fallback);
+            long off = s.offset;
+            Class<?> t = s.type;
+            if (s.isVolatile) {
+                if      (!t.isPrimitive()  ) return (src, dst) -> UnsafeOps.putObject (dst, off, UnsafeOps.getObjectVolatile (src, off));
+                else if (t == int.class    ) return (src, dst) -> UnsafeOps.putInt    (dst, off, UnsafeOps.getIntVolatile    (src, off));
+                else if (t == long.class   ) return (src, dst) -> UnsafeOps.putLong   (dst, off, UnsafeOps.getLongVolatile   (src, off));
+                else if (t == boolean.class) return (src, dst) -> UnsafeOps.putBoolean(dst, off, UnsafeOps.getBooleanVolatile(src, off));
+                else if (t == double.class ) return (src, dst) -> UnsafeOps.putDouble (dst, off, UnsafeOps.getDoubleVolatile (src, off));
+                else if (t == float.class  ) return (src, dst) -> UnsafeOps.putFloat  (dst, off, UnsafeOps.getFloatVolatile  (src, off));
+                else if (t == char.class   ) return (src, dst) -> UnsafeOps.putChar   (dst, off, UnsafeOps.getCharVolatile   (src, off));
+                else if (t == byte.class   ) return (src, dst) -> UnsafeOps.putByte   (dst, off, UnsafeOps.getByteVolatile   (src, off));
+                else                         return (src, dst) -> UnsafeOps.putShort  (dst, off, UnsafeOps.getShortVolatile  (src, off));
+            }
+            if      (!t.isPrimitive()  ) return (src, dst) -> UnsafeOps.putObject (dst, off, UnsafeOps.getObject (src, off));
+            else if (t == int.class    ) return (src, dst) -> UnsafeOps.putInt    (dst, off, UnsafeOps.getInt    (src, off));
+            else if (t == long.class   ) return (src, dst) -> UnsafeOps.putLong   (dst, off, UnsafeOps.getLong   (src, off));
+            else if (t == boolean.class) return (src, dst) -> UnsafeOps.putBoolean(dst, off, UnsafeOps.getBoolean(src, off));
+            else if (t == double.class ) return (src, dst) -> UnsafeOps.putDouble (dst, off, UnsafeOps.getDouble (src, off));
+            else if (t == float.class  ) return (src, dst) -> UnsafeOps.putFloat  (dst, off, UnsafeOps.getFloat  (src, off));
+            else if (t == char.class   ) return (src, dst) -> UnsafeOps.putChar   (dst, off, UnsafeOps.getChar   (src, off));
+            else if (t == byte.class   ) return (src, dst) -> UnsafeOps.putByte   (dst, off, UnsafeOps.getByte   (src, off));
+            else                         return (src, dst) -> UnsafeOps.putShort  (dst, off, UnsafeOps.getShort  (src, off));
+        }
+
+        @Override
+        public Getter getGetter(Field field, Slot s) {
+            if (s.fallback != null) return VarHandleAccessor.INSTANCE.getGetter(field, s.fallback);
+            if (!s.type.isPrimitive()) {
+                long off = s.offset;
+                return s.isVolatile ? src -> UnsafeOps.getObjectVolatile(src, off) : src -> UnsafeOps.getObject(src, off);
+            }
+            return src -> get(field, s, src);
+        }
+
+        @Override
+        public Setter getSetter(Field field, Slot s) {
+            if (s.fallback != null) return VarHandleAccessor.INSTANCE.getSetter(field, s.fallback);
+            if (!s.type.isPrimitive()) {
+                long off = s.offset;
+                Class<?> t = s.type;
+                return (dst, value) -> UnsafeOps.putObject(dst, off, t.cast(value));
+            }
+            return (dst, value) -> set(field, s, dst, value);
+        }
+
+        @Override
+        public BlockCopier getBlockCopier(List<Field> fields) {
+            // [start, end) byte ranges of the fields, ordered by offset
+            List<long[]> ranges = new ArrayList<>();
+            for (Field field : fields) {
+                long offset;
+                try {
+                    offset = UnsafeOps.objectFieldOffset(field);
+                } catch (UnsupportedOperationException e) { // records and hidden classes
+                    return null;
+                }
+                ranges.add(new long[]{offset, offset + sizeOf(field.getType())});
+            }
+            ranges.sort(Comparator.comparingLong(r -> r[0]));
+
+            // merge adjacent fields into blocks and split the blocks into naturally aligned words
+            List<long[]> words = new ArrayList<>(); // offset & width
+            for (int i = 0; i < ranges.size(); ) {
+                long start = ranges.get(i)[0];
+                long end = ranges.get(i)[1];
+                for (i++; i < ranges.size() && ranges.get(i)[0] == end; i++) {
+                    end = ranges.get(i)[1];
+                }
+                while (start < end) {
+                    int width = 8;
+                    while (start % width != 0 || start + width > end) width >>= 1;
+                    words.add(new long[]{start, width});
+                    start += width;
+                }
+            }
+
+            long[] offsets = new long[words.size()];
+            byte[] widths = new byte[words.size()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = words.get(i)[0];
+                widths[i] = (byte) words.get(i)[1];
+            }
+            return (src, dst) -> {
+                for (int i = 0; i < offsets.length; i++) {
+                    long off = offsets[i];
+                    switch (widths[i]) {
+                        case 8:  UnsafeOps.putLong (dst, off, UnsafeOps.getLong (src, off)); break;
+                        case 4:  UnsafeOps.putInt  (dst, off, UnsafeOps.getInt  (src, off)); break;
+                        case 2:  UnsafeOps.putShort(dst, off, UnsafeOps.getShort(src, off)); break;
+                        default: UnsafeOps.putByte (dst, off, UnsafeOps.getByte (src, off)); break;
+                    }
+                }
+            };
+        }
+
+        private static int sizeOf(Class<?> t) {
+            if (t == long.class || t == double.class) return 8;
+            if (t == int.class || t == float.class) return 4;
+            if (t == char.class || t == short.class) return 2;
+            return 1;
+        }
     }
 
     static <T> T handleWithContext(Field field, ThrowingSupplier<T> action) {
         try {
             return action.apply();
         } catch (SecurityException | IllegalArgumentException | ReflectiveOperationException e) {
-            throw new CloningException(String.format("No access to field [%s] [%s] within class [%s]", field.getType(), field.getName(), field.getDeclaringClass()), e);
+            throw withContext(field, e);
         } catch (CloningException e) {
-            throw new CloningException(String.format("No access to field [%s] [%s] within class [%s]", field.getType(), field.getName(), field.getDeclaringClass()), e.getCause());
+            throw withContext(field, e.getCause());
         }
     }
 
@@ -252,9 +724,16 @@ class Fields {
         try {
             action.run();
         } catch (SecurityException | IllegalArgumentException | ReflectiveOperationException e) {
-            throw new CloningException(String.format("No access to field [%s] [%s] within class [%s]", field.getType(), field.getName(), field.getDeclaringClass()), e);
+            throw withContext(field, e);
         } catch (CloningException e) {
-            throw new CloningException(String.format("No access to field [%s] [%s] within class [%s]", field.getType(), field.getName(), field.getDeclaringClass()), e.getCause());
+            throw withContext(field, e.getCause());
         }
     }
+
+    /**
+     * @return the exception reporting that the field couldn't be accessed
+     */
+    static CloningException withContext(Field field, Throwable cause) {
+        return new CloningException(String.format("No access to field [%s] [%s] within class [%s]", field.getType(), field.getName(), field.getDeclaringClass()), cause);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.rits.cloning;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * marks the specific class so that the cloning-processor annotation processor generates an {@link ITypedFastCloner}
+ * for it at build time. The generated cloner creates instances through the class's constructor and copies fields
+ * directly, without reflection. It is registered as a service and is picked up by {@link Cloner#registerFastCloners()}.
+ * <p>
+ * Records are cloned through their canonical constructor. Fields of other classes, inherited ones included, are read
+ * and assigned directly if they are accessible from the package of the class, and through their getters ({@code getX()},
+ * {@code isX()} or {@code x()}) and setters ({@code setX(x)}) otherwise. Final fields are passed to the non-private
+ * constructor taking them, and possibly other fields, as parameters of the same names and types, with the fewest
+ * parameters; classes without final fields may use a non-private no-arg constructor. Fields that can be accessed neither
+ * way are reported as compile errors.
+ * <p>
+ * Getters, setters and constructors must read and assign the fields as they are: one that returns an unmodifiable view
+ * or a defensive copy, or validates, normalizes or copies its argument, silently changes what the clone holds. Make such
+ * fields accessible from the package of the class instead.
+ * <p>
+ * While the values passed to a constructor are cloned, the clone doesn't exist yet: a cycle leading back to the instance
+ * through them fails with a {@link CloningException}. Cycles through fields assigned after construction are fine.
+ * <p>
+ * Like any fast cloner, generated cloners don't apply per field settings such as nullTransient or cloning strategies.
+ */
+@Target(TYPE)
+@Retention(CLASS)
+public @interface GenerateCloner
+{
+}
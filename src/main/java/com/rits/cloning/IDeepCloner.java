@@ -17,4 +17,30 @@ public interface IDeepCloner {
      * @return a clone of o
      */
     <T> T deepClone(final T o, final Map<Object, Object> clones);
+
+    /**
+     * @param size   the number of values to clone
+     * @param clones pass on the same map from IFastCloner
+     * @return true if {@link #deepCloneAll} clones that many values in parallel, so that it is worth collecting them
+     * into an array first
+     */
+    default boolean clonesInParallel(final int size, final Map<Object, Object> clones) {
+        return false;
+    }
+
+    /**
+     * deep clones each of the values, as many calls to {@link #deepClone} would, but possibly in parallel, see
+     * {@link Cloner#setParallelThreshold}
+     *
+     * @param values the objects to be deep cloned
+     * @param clones pass on the same map from IFastCloner
+     * @return the clones, in the order of the values
+     */
+    default Object[] deepCloneAll(final Object[] values, final Map<Object, Object> clones) {
+        final Object[] result = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = deepClone(values[i], clones);
+        }
+        return result;
+    }
 }
@@ -11,4 +11,14 @@ public interface IInstantiationStrategy
 {
 	<T> T newInstance(final Class<T> c);
 	<T>ObjectInstantiator<T> getInstantiatorOf(Class<T> c);
+
+	/**
+	 * @return true if the instances of c are created with every field at its default value, as Objenesis does without
+	 * running any constructor. Otherwise the cloner resets the fields it doesn't copy, i.e. transient fields with
+	 * nullTransient
+	 */
+	default boolean instantiatesBlank(Class<?> c)
+	{
+		return true;
+	}
 }
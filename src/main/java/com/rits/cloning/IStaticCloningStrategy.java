@@ -0,0 +1,15 @@
+package com.rits.cloning;
+
+import java.lang.reflect.Field;
+
+/**
+ * A cloning strategy which only depends on the field, not on the instance being cloned. The cloner asks it once per
+ * field, when it builds the cloning plan of the class declaring the field, rather than for each cloned instance.
+ */
+public interface IStaticCloningStrategy extends ICloningStrategy {
+	Strategy strategyFor(Field field);
+
+	default Strategy strategyFor(Object toBeCloned, Field field) {
+		return strategyFor(field);
+	}
+}
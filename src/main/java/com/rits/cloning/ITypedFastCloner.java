@@ -0,0 +1,30 @@
+package com.rits.cloning;
+
+import java.util.Map;
+
+/**
+ * a fast cloner which knows the class it clones. Implementations listed in
+ * {@code META-INF/services/com.rits.cloning.ITypedFastCloner} are discovered via {@link java.util.ServiceLoader}
+ * and registered by {@link Cloner#registerFastCloners()}, i.e. the ones generated for {@link GenerateCloner}
+ * annotated classes.
+ */
+public interface ITypedFastCloner extends IFastCloner
+{
+	/**
+	 * @return the exact class cloned by this fast cloner
+	 */
+	Class<?> getType();
+
+	/**
+	 * registers o in the clones as under construction, for cloners which deep clone the arguments of the constructor
+	 * creating its clone, as the clone can't exist before. Meeting o again meanwhile fails with a
+	 * {@link CloningException}; register the clone once created.
+	 *
+	 * @param clones the clones passed to the cloner
+	 * @param o      the instance being cloned
+	 */
+	static void markUnderConstruction(final Map<Object, Object> clones, final Object o)
+	{
+		Cloner.markUnderConstruction(clones, o);
+	}
+}
@@ -11,15 +11,26 @@ import org.objenesis.instantiator.ObjectInstantiator;
  */
 public class ObjenesisInstantiationStrategy implements IInstantiationStrategy
 {
-	private final Objenesis	objenesis	= new ObjenesisStd();
+	// objenesis' own cache is keyed by class name and would keep the classes from being unloaded
+	private final Objenesis	objenesis	= new ObjenesisStd(false);
+
+	private final ClassValue<ObjectInstantiator<?>> instantiators = new ClassValue<ObjectInstantiator<?>>()
+	{
+		@Override
+		protected ObjectInstantiator<?> computeValue(Class<?> c)
+		{
+			return objenesis.getInstantiatorOf(c);
+		}
+	};
 
 	public <T> T newInstance(Class<T> c)
 	{
-		return objenesis.newInstance(c);
+		return getInstantiatorOf(c).newInstance();
 	}
 
+	@SuppressWarnings("unchecked")
 	public <T>ObjectInstantiator<T> getInstantiatorOf(Class<T> c) {
-		return objenesis.getInstantiatorOf(c);
+		return (ObjectInstantiator<T>) instantiators.get(c);
 	}
 
 	private static ObjenesisInstantiationStrategy	instance	= new ObjenesisInstantiationStrategy();
@@ -0,0 +1,57 @@
+package com.rits.cloning;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link Cloner#prepare} planned: the classes reachable from the roots through the declared types of their
+ * fields, including the type arguments of generic fields, along with those it found to be shared or nulled rather
+ * than cloned and those it failed to plan.
+ */
+public final class PrepareSummary {
+    private final List<Class<?>> planned;
+    private final Set<Class<?>> notCloned;
+    private final Map<Class<?>, RuntimeException> failures;
+    private final long nanos;
+
+    PrepareSummary(List<Class<?>> planned, Set<Class<?>> notCloned, Map<Class<?>, RuntimeException> failures, long nanos) {
+        this.planned = List.copyOf(planned);
+        this.notCloned = Set.copyOf(notCloned);
+        this.failures = Map.copyOf(failures);
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the classes planned, in no particular order
+     */
+    public List<Class<?>> getPlanned() {
+        return planned;
+    }
+
+    /**
+     * @return the planned classes whose instances are shared or nulled rather than cloned, so their fields weren't
+     * followed
+     */
+    public Set<Class<?>> getNotCloned() {
+        return notCloned;
+    }
+
+    /**
+     * @return the classes which couldn't be planned, along with the reason. Their deep clones will fail alike
+     */
+    public Map<Class<?>, RuntimeException> getFailures() {
+        return failures;
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("prepared %d classes (%d not cloned, %d failed) in %d ms", planned.size(), notCloned.size(),
+                failures.size(), getElapsed(TimeUnit.MILLISECONDS));
+    }
+}
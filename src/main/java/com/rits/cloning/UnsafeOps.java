@@ -0,0 +1,208 @@
+package com.rits.cloning;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * The methods of {@code sun.misc.Unsafe} used by {@link Fields} to access fields by offset, called through method
+ * handles bound to {@code theUnsafe}. {@code sun.misc} is looked up at runtime only, so neither compiling nor
+ * resolving this library requires it unless the unsafe accessor is picked. If it is not available, initializing this
+ * class fails with a {@link LinkageError}, and {@link Fields} falls back to its var handles accessor.
+ */
+final class UnsafeOps {
+    private static final Object UNSAFE;
+    private static final Class<?> UNSAFE_CLASS;
+
+    static {
+        try {
+            UNSAFE_CLASS = Class.forName("sun.misc.Unsafe");
+            Field f = UNSAFE_CLASS.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            UNSAFE = f.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final MethodHandle OBJECT_FIELD_OFFSET = find("objectFieldOffset", long.class, Field.class);
+    private static final MethodHandle STATIC_FIELD_OFFSET = find("staticFieldOffset", long.class, Field.class);
+    private static final MethodHandle STATIC_FIELD_BASE = find("staticFieldBase", Object.class, Field.class);
+    private static final MethodHandle GET_OBJECT = find("getObject", Object.class, Object.class, long.class);
+    private static final MethodHandle GET_OBJECT_VOLATILE = find("getObjectVolatile", Object.class, Object.class, long.class);
+    private static final MethodHandle PUT_OBJECT = find("putObject", void.class, Object.class, long.class, Object.class);
+    private static final MethodHandle GET_INT = find("getInt", int.class, Object.class, long.class);
+    private static final MethodHandle GET_INT_VOLATILE = find("getIntVolatile", int.class, Object.class, long.class);
+    private static final MethodHandle PUT_INT = find("putInt", void.class, Object.class, long.class, int.class);
+    private static final MethodHandle GET_LONG = find("getLong", long.class, Object.class, long.class);
+    private static final MethodHandle GET_LONG_VOLATILE = find("getLongVolatile", long.class, Object.class, long.class);
+    private static final MethodHandle PUT_LONG = find("putLong", void.class, Object.class, long.class, long.class);
+    private static final MethodHandle GET_BOOLEAN = find("getBoolean", boolean.class, Object.class, long.class);
+    private static final MethodHandle GET_BOOLEAN_VOLATILE = find("getBooleanVolatile", boolean.class, Object.class, long.class);
+    private static final MethodHandle PUT_BOOLEAN = find("putBoolean", void.class, Object.class, long.class, boolean.class);
+    private static final MethodHandle GET_DOUBLE = find("getDouble", double.class, Object.class, long.class);
+    private static final MethodHandle GET_DOUBLE_VOLATILE = find("getDoubleVolatile", double.class, Object.class, long.class);
+    private static final MethodHandle PUT_DOUBLE = find("putDouble", void.class, Object.class, long.class, double.class);
+    private static final MethodHandle GET_FLOAT = find("getFloat", float.class, Object.class, long.class);
+    private static final MethodHandle GET_FLOAT_VOLATILE = find("getFloatVolatile", float.class, Object.class, long.class);
+    private static final MethodHandle PUT_FLOAT = find("putFloat", void.class, Object.class, long.class, float.class);
+    private static final MethodHandle GET_CHAR = find("getChar", char.class, Object.class, long.class);
+    private static final MethodHandle GET_CHAR_VOLATILE = find("getCharVolatile", char.class, Object.class, long.class);
+    private static final MethodHandle PUT_CHAR = find("putChar", void.class, Object.class, long.class, char.class);
+    private static final MethodHandle GET_BYTE = find("getByte", byte.class, Object.class, long.class);
+    private static final MethodHandle GET_BYTE_VOLATILE = find("getByteVolatile", byte.class, Object.class, long.class);
+    private static final MethodHandle PUT_BYTE = find("putByte", void.class, Object.class, long.class, byte.class);
+    private static final MethodHandle GET_SHORT = find("getShort", short.class, Object.class, long.class);
+    private static final MethodHandle GET_SHORT_VOLATILE = find("getShortVolatile", short.class, Object.class, long.class);
+    private static final MethodHandle PUT_SHORT = find("putShort", void.class, Object.class, long.class, short.class);
+
+    private UnsafeOps() {}
+
+    /**
+     * Initializes this class.
+     *
+     * @throws LinkageError if {@code sun.misc.Unsafe} is not available
+     */
+    static void ensureInitialized() {}
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(UNSAFE_CLASS, name, MethodType.methodType(returnType, parameterTypes))
+                    .bindTo(UNSAFE);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Throws t as is if unchecked, wrapped otherwise, as none of these methods throws checked exceptions. Returns
+     * nothing, but lets call sites write {@code throw rethrow(t)}.
+     */
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        throw new IllegalStateException(t);
+    }
+
+    static long objectFieldOffset(Field field) {
+        try { return (long) OBJECT_FIELD_OFFSET.invokeExact(field); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static long staticFieldOffset(Field field) {
+        try { return (long) STATIC_FIELD_OFFSET.invokeExact(field); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object staticFieldBase(Field field) {
+        try { return (Object) STATIC_FIELD_BASE.invokeExact(field); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getObject(Object o, long offset) {
+        try { return (Object) GET_OBJECT.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static Object getObjectVolatile(Object o, long offset) {
+        try { return (Object) GET_OBJECT_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putObject(Object o, long offset, Object x) {
+        try { PUT_OBJECT.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static int getInt(Object o, long offset) {
+        try { return (int) GET_INT.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static int getIntVolatile(Object o, long offset) {
+        try { return (int) GET_INT_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putInt(Object o, long offset, int x) {
+        try { PUT_INT.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static long getLong(Object o, long offset) {
+        try { return (long) GET_LONG.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static long getLongVolatile(Object o, long offset) {
+        try { return (long) GET_LONG_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putLong(Object o, long offset, long x) {
+        try { PUT_LONG.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static boolean getBoolean(Object o, long offset) {
+        try { return (boolean) GET_BOOLEAN.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static boolean getBooleanVolatile(Object o, long offset) {
+        try { return (boolean) GET_BOOLEAN_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putBoolean(Object o, long offset, boolean x) {
+        try { PUT_BOOLEAN.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static double getDouble(Object o, long offset) {
+        try { return (double) GET_DOUBLE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static double getDoubleVolatile(Object o, long offset) {
+        try { return (double) GET_DOUBLE_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putDouble(Object o, long offset, double x) {
+        try { PUT_DOUBLE.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static float getFloat(Object o, long offset) {
+        try { return (float) GET_FLOAT.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static float getFloatVolatile(Object o, long offset) {
+        try { return (float) GET_FLOAT_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putFloat(Object o, long offset, float x) {
+        try { PUT_FLOAT.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static char getChar(Object o, long offset) {
+        try { return (char) GET_CHAR.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static char getCharVolatile(Object o, long offset) {
+        try { return (char) GET_CHAR_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putChar(Object o, long offset, char x) {
+        try { PUT_CHAR.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static byte getByte(Object o, long offset) {
+        try { return (byte) GET_BYTE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static byte getByteVolatile(Object o, long offset) {
+        try { return (byte) GET_BYTE_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putByte(Object o, long offset, byte x) {
+        try { PUT_BYTE.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static short getShort(Object o, long offset) {
+        try { return (short) GET_SHORT.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static short getShortVolatile(Object o, long offset) {
+        try { return (short) GET_SHORT_VOLATILE.invokeExact(o, offset); } catch (Throwable t) { throw rethrow(t); }
+    }
+
+    static void putShort(Object o, long offset, short x) {
+        try { PUT_SHORT.invokeExact(o, offset, x); } catch (Throwable t) { throw rethrow(t); }
+    }
+}
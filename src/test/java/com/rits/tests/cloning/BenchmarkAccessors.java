@@ -0,0 +1,48 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+/**
+ * clones primitive dense objects, run with -Dcom.rits.cloning.Fields.accessor=handles|reflection|unsafe to compare
+ * the field accessors
+ */
+public class BenchmarkAccessors
+{
+	public static void main(final String[] args)
+	{
+		final Cloner cloner = new Cloner();
+		final Stats[] stats = new Stats[1000];
+		for (int i = 0; i < stats.length; i++)
+		{
+			stats[i] = new Stats(i);
+		}
+		for (int round = 0; round < 5; round++)
+		{
+			final long start = System.currentTimeMillis();
+			for (int j = 0; j < 10000; j++)
+			{
+				cloner.deepClone(stats);
+			}
+			System.out.println(System.getProperty("com.rits.cloning.Fields.accessor", "handles") + " dt=" + (System.currentTimeMillis() - start));
+		}
+	}
+
+	static class Stats
+	{
+		private final int id;
+		private long created = System.nanoTime();
+		private long updated = created;
+		private int hits;
+		private int misses;
+		private double ratio = 0.5;
+		private boolean enabled = true;
+		private boolean dirty;
+		private short shard = 3;
+		private char code = 'x';
+
+		Stats(final int id)
+		{
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+/**
+ * deep clones arrays typical of tables: Object[] rows of immutable values, String[][] and double[][] matrices and
+ * Object[] of mutable cells
+ */
+public class BenchmarkArrayClone
+{
+	public static void main(final String[] args)
+	{
+		final Object[] values = new Object[10000];
+		final String[][] strings = new String[1000][10];
+		final double[][] doubles = new double[1000][10];
+		final Object[] cells = new Object[1000];
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = i % 3 == 0 ? "v" + i : i % 3 == 1 ? (Object) i : (Object) (long) i;
+		}
+		for (int i = 0; i < strings.length; i++)
+		{
+			for (int j = 0; j < strings[i].length; j++)
+			{
+				strings[i][j] = "s" + i + "," + j;
+				doubles[i][j] = i * j;
+			}
+			cells[i] = new Cell(i);
+		}
+		final Cloner cloner = new Cloner();
+		for (int i = 0; i < 3; i++)
+		{
+			System.out.println("Object[] of immutables dt=" + time(cloner, values)
+					+ " String[][] dt=" + time(cloner, strings)
+					+ " double[][] dt=" + time(cloner, doubles)
+					+ " Object[] of cells dt=" + time(cloner, cells));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Object o)
+	{
+		for (int j = 0; j < 2000; j++)
+		{
+			cloner.deepClone(o);
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 10000; j++)
+		{
+			cloner.deepClone(o);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Cell
+	{
+		private int value;
+
+		Cell(final int value)
+		{
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * measures the tracking of clones for graphs of a few, some hundreds and many thousands of objects, with and without
+ * registered constants
+ */
+public class BenchmarkClonesMap
+{
+	static final Object MARKER = new Object();
+
+	public static void main(final String[] args)
+	{
+		final Node small = graph(3);
+		final Node medium = graph(300);
+		final Node large = graph(30000);
+		final Cloner cloner = new Cloner();
+		final Cloner withConstants = new Cloner();
+		for (int i = 0; i < 200; i++)
+		{
+			withConstants.registerConstant(new Object());
+		}
+		withConstants.registerConstant(MARKER);
+		for (int i = 0; i < 3; i++)
+		{
+			System.out.println("small dt=" + time(cloner, small, 3000000)
+					+ " medium dt=" + time(cloner, medium, 30000)
+					+ " large dt=" + time(cloner, large, 300)
+					+ " small with constants dt=" + time(withConstants, small, 3000000)
+					+ " medium with constants dt=" + time(withConstants, medium, 30000));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Node graph, final int rounds)
+	{
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < rounds; j++)
+		{
+			cloner.deepClone(graph);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	private static Node graph(final int size)
+	{
+		final Node[] nodes = new Node[size];
+		nodes[0] = new Node();
+		for (int i = 1; i < size; i++)
+		{
+			// a shallow tree with references back to the parents, which the clones map must preserve
+			nodes[i] = new Node();
+			nodes[i].parent = nodes[(i - 1) / 4];
+			nodes[i].parent.children.add(nodes[i]);
+		}
+		return nodes[0];
+	}
+
+	static class Node
+	{
+		private int id;
+		private Object marker = MARKER;
+		private Node parent;
+		private final List<Node> children = new ArrayList<>(4);
+	}
+}
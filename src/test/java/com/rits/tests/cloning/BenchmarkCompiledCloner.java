@@ -0,0 +1,63 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compares the interpreted and the compiled per class cloners on a graph of small POJOs
+ */
+public class BenchmarkCompiledCloner
+{
+	public static void main(final String[] args)
+	{
+		final List<Pojo> graph = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+		{
+			graph.add(new Pojo(i));
+		}
+
+		final Cloner interpreted = new Cloner();
+		final Cloner compiled = new Cloner();
+		compiled.setCompileCloners(true);
+
+		for (int round = 0; round < 5; round++)
+		{
+			System.out.println("interpreted dt=" + run(interpreted, graph));
+			System.out.println("compiled    dt=" + run(compiled, graph));
+		}
+	}
+
+	private static long run(final Cloner cloner, final List<Pojo> graph)
+	{
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 5000; j++)
+		{
+			cloner.deepClone(graph);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Child
+	{
+		private int x = 5;
+		private String s = "this is a child";
+	}
+
+	static class Pojo
+	{
+		private final int id;
+		private long created = System.nanoTime();
+		private boolean enabled = true;
+		private double ratio = 0.5;
+		private String name;
+		private Child child = new Child();
+
+		Pojo(final int id)
+		{
+			this.id = id;
+			this.name = "pojo" + id;
+		}
+	}
+}
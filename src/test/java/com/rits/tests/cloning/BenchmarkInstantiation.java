@@ -0,0 +1,120 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.FastInstantiationStrategy;
+import com.rits.cloning.IInstantiationStrategy;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compares instantiating typical POJOs through Objenesis with the routes of {@link FastInstantiationStrategy}, first
+ * alone and then as part of deep clones. The no-arg constructors initialize nothing, as those which do would add their
+ * own cost
+ */
+public class BenchmarkInstantiation
+{
+	public static void main(final String[] args)
+	{
+		final FastInstantiationStrategy fast = FastInstantiationStrategy.getInstance();
+		final Class<?>[] classes = {Point.class, Customer.class, Order.class};
+		for (final Class<?> c : classes)
+		{
+			System.out.println(c.getSimpleName() + " route=" + fast.getRoute(c));
+		}
+		final Object[] orders = new Object[1000];
+		for (int i = 0; i < orders.length; i++)
+		{
+			orders[i] = new Order(i);
+		}
+		for (int i = 0; i < 2; i++)
+		{
+			for (final IInstantiationStrategy strategy : new IInstantiationStrategy[]{ObjenesisInstantiationStrategy.getInstance(), fast})
+			{
+				final Cloner cloner = new Cloner(strategy);
+				cloner.setUseObjectClone(false);
+				System.out.println(strategy.getClass().getSimpleName()
+						+ " newInstance dt=" + time(strategy, classes)
+						+ " deepClone dt=" + time(cloner, orders));
+			}
+		}
+	}
+
+	private static long time(final IInstantiationStrategy strategy, final Class<?>[] classes)
+	{
+		final ObjectInstantiator<?>[] instantiators = new ObjectInstantiator<?>[classes.length];
+		for (int i = 0; i < classes.length; i++)
+		{
+			instantiators[i] = strategy.getInstantiatorOf(classes[i]);
+		}
+		int nulls = 0;
+		for (int j = 0; j < 2000000; j++)
+		{
+			if (instantiators[j % instantiators.length].newInstance() == null) nulls++;
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 20000000; j++)
+		{
+			if (instantiators[j % instantiators.length].newInstance() == null) nulls++;
+		}
+		if (nulls > 0) System.out.println(nulls);
+		return System.currentTimeMillis() - start;
+	}
+
+	private static long time(final Cloner cloner, final Object[] os)
+	{
+		for (int j = 0; j < 2000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 5000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Point
+	{
+		private int x;
+		private int y;
+	}
+
+	static class Customer
+	{
+		private long id;
+		private String name;
+		private String email;
+		private Point address;
+	}
+
+	static class Order
+	{
+		private long id;
+		private double total;
+		private Customer customer;
+		private List<Point> lines;
+
+		Order()
+		{
+		}
+
+		Order(final long id)
+		{
+			this.id = id;
+			customer = new Customer();
+			customer.address = new Point();
+			lines = new ArrayList<>();
+			lines.add(new Point());
+		}
+	}
+}
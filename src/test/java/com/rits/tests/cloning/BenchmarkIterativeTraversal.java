@@ -0,0 +1,77 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * compares the iterative traversal with the recursive one on shallow graphs, which both can clone
+ */
+public class BenchmarkIterativeTraversal
+{
+	public static void main(final String[] args)
+	{
+		final Bean[] beans = new Bean[1000];
+		for (int i = 0; i < beans.length; i++)
+		{
+			beans[i] = new Bean(i);
+		}
+		for (final boolean iterative : new boolean[]{false, true, false, true})
+		{
+			final Cloner cloner = new Cloner();
+			cloner.setIterativeTraversal(iterative);
+			System.out.println("iterativeTraversal=" + iterative + " dt=" + time(cloner, beans));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Object[] os)
+	{
+		for (int j = 0; j < 1000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 2000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Bean
+	{
+		private int id;
+		private String name;
+		private Bean parent;
+		private final List<Bean> children = new ArrayList<>();
+		private final Map<String, Integer> counts = new HashMap<>();
+		private final int[] values = new int[8];
+
+		Bean(final int id)
+		{
+			this.id = id;
+			this.name = "bean" + id;
+			for (int i = 0; i < 3; i++)
+			{
+				final Bean child = new Bean(this);
+				child.id = i;
+				children.add(child);
+			}
+			counts.put("a", id);
+		}
+
+		private Bean(final Bean parent)
+		{
+			this.parent = parent;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * deep clones hash maps and sets of a hundred thousand entries with immutable keys, and with mutable ones
+ */
+public class BenchmarkMapClone
+{
+	public static void main(final String[] args)
+	{
+		final Map<String, Cell> cells = new HashMap<>();
+		final Map<String, String> strings = new LinkedHashMap<>();
+		final Set<String> keys = new HashSet<>();
+		final Map<Cell, String> cellKeys = new HashMap<>();
+		final Set<Cell> cellSet = new HashSet<>();
+		for (int i = 0; i < 100000; i++)
+		{
+			cells.put("k" + i, new Cell(i));
+			strings.put("k" + i, "v" + i);
+			keys.add("k" + i);
+			cellKeys.put(new Cell(i), "v" + i);
+			cellSet.add(new Cell(i));
+		}
+		final Cloner cloner = new Cloner();
+		for (int i = 0; i < 5; i++)
+		{
+			System.out.println("cells dt=" + time(cloner, cells)
+					+ " strings dt=" + time(cloner, strings)
+					+ " set dt=" + time(cloner, keys)
+					+ " mutable keys dt=" + time(cloner, cellKeys)
+					+ " mutable set dt=" + time(cloner, cellSet));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Object o)
+	{
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 50; j++)
+		{
+			cloner.deepClone(o);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Cell
+	{
+		private int value;
+
+		Cell(final int value)
+		{
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			return o instanceof Cell && ((Cell) o).value == value;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Integer.hashCode(value);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compares the Object.clone() tier with the instantiate and copy each field path, for a class of primitive and String
+ * fields and for a class of mutable references
+ */
+public class BenchmarkObjectClone
+{
+	public static void main(final String[] args)
+	{
+		final Flat[] flats = new Flat[1000];
+		final Refs[] refs = new Refs[1000];
+		for (int i = 0; i < flats.length; i++)
+		{
+			flats[i] = new Flat(i);
+			refs[i] = new Refs();
+		}
+		for (final boolean useObjectClone : new boolean[]{false, true, false, true})
+		{
+			final Cloner cloner = new Cloner();
+			cloner.setUseObjectClone(useObjectClone);
+			System.out.println("useObjectClone=" + useObjectClone
+					+ " flat dt=" + time(cloner, flats)
+					+ " refs dt=" + time(cloner, refs));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Object[] os)
+	{
+		for (int j = 0; j < 2000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 5000; j++)
+		{
+			for (final Object o : os)
+			{
+				cloner.deepClone(o);
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Flat implements Cloneable
+	{
+		private final int id;
+		private long created = System.nanoTime();
+		private long updated = created;
+		private int hits;
+		private double ratio = 0.5;
+		private boolean enabled = true;
+		private String name = "flat";
+		private String owner = "owner";
+		private String region = "eu";
+		private String zone = "a";
+
+		Flat(final int id)
+		{
+			this.id = id;
+		}
+	}
+
+	static class Refs implements Cloneable
+	{
+		private final List<String> a = new ArrayList<>();
+		private final List<String> b = new ArrayList<>();
+		private final Refs[] c = new Refs[0];
+		private final int[] d = new int[4];
+	}
+}
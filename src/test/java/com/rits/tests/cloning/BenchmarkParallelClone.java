@@ -0,0 +1,66 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * deep clones a lookup table of a million entries and a list of a million objects sequentially and in parallel
+ * chunks on the common pool
+ */
+public class BenchmarkParallelClone
+{
+	public static void main(final String[] args)
+	{
+		final Map<Integer, Row> table = new HashMap<>();
+		final List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < 1000000; i++)
+		{
+			final Row row = new Row(i);
+			table.put(i, row);
+			rows.add(row);
+		}
+		for (int i = 0; i < 3; i++)
+		{
+			for (final int threshold : new int[]{0, 10000})
+			{
+				final Cloner cloner = new Cloner();
+				cloner.setParallelThreshold(threshold);
+				System.out.println("threshold=" + threshold
+						+ " table dt=" + time(cloner, table)
+						+ " rows dt=" + time(cloner, rows));
+			}
+		}
+	}
+
+	private static long time(final Cloner cloner, final Object o)
+	{
+		for (int j = 0; j < 3; j++)
+		{
+			cloner.deepClone(o);
+		}
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 10; j++)
+		{
+			cloner.deepClone(o);
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	static class Row
+	{
+		private final int id;
+		private String name;
+		private final List<String> tags = new ArrayList<>();
+
+		Row(final int id)
+		{
+			this.id = id;
+			name = "row" + id;
+			tags.add(name);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compares deepClone with deepCloneTree, which doesn't track the clones, on a tree of beans
+ */
+public class BenchmarkTreeClone
+{
+	public static void main(final String[] args)
+	{
+		final Node tree = tree(10);
+		final Cloner cloner = new Cloner();
+		for (int i = 0; i < 4; i++)
+		{
+			System.out.println("deepClone dt=" + time(cloner, tree, false)
+					+ " deepCloneTree dt=" + time(cloner, tree, true));
+		}
+	}
+
+	private static long time(final Cloner cloner, final Node tree, final boolean untracked)
+	{
+		final long start = System.currentTimeMillis();
+		for (int j = 0; j < 2000; j++)
+		{
+			if (untracked)
+			{
+				cloner.deepCloneTree(tree);
+			} else
+			{
+				cloner.deepClone(tree);
+			}
+		}
+		return System.currentTimeMillis() - start;
+	}
+
+	private static Node tree(final int depth)
+	{
+		final Node node = new Node();
+		node.name = "node" + depth;
+		if (depth > 0)
+		{
+			node.children.add(tree(depth - 1));
+			node.children.add(tree(depth - 1));
+		}
+		return node;
+	}
+
+	static class Node
+	{
+		private String name;
+		private int size = 3;
+		private final long[] stamps = new long[2];
+		private final Leaf leaf = new Leaf();
+		private final List<Node> children = new ArrayList<>();
+	}
+
+	static class Leaf
+	{
+		private double value = 1;
+		private boolean dirty;
+	}
+}
@@ -0,0 +1,32 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.IDeepCloner;
+import com.rits.cloning.ITypedFastCloner;
+
+import java.util.Map;
+
+/**
+ * registered in META-INF/services so that the cloner discovers it
+ */
+public class DiscoveredFastCloner implements ITypedFastCloner
+{
+	public static class Discovered
+	{
+		public Object value;
+		public boolean viaFastCloner;
+	}
+
+	public Class<?> getType()
+	{
+		return Discovered.class;
+	}
+
+	public Object clone(final Object t, final IDeepCloner cloner, final Map<Object, Object> clones)
+	{
+		final Discovered d = (Discovered) t;
+		final Discovered result = new Discovered();
+		result.value = cloner.deepClone(d.value, clones);
+		result.viaFastCloner = true;
+		return result;
+	}
+}
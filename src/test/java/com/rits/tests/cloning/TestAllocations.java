@@ -0,0 +1,114 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * checks that, once warmed up, deep cloning allocates no more than the clones themselves. The expected allocation is
+ * measured by building the same object graph by hand.
+ */
+public class TestAllocations {
+    private static final int WARM_UP = 20000;
+    private static final int ROUNDS = 10000;
+    // per round: the odd bytes of the measurement itself, i.e. a TLAB refill
+    private static final long SLACK = 8;
+
+    private static com.sun.management.ThreadMXBean threads;
+    // keeps the copies made by hand from being optimized away
+    static volatile Object sink;
+
+    private final Cloner cloner = new Cloner();
+
+    @BeforeAll
+    static void setup() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    static class Item {
+        final int id;
+        long created = 1;
+        double price = 2.5;
+        String name = "item";
+        final int[] counts;
+
+        Item(int id, int[] counts) {
+            this.id = id;
+            this.counts = counts;
+        }
+    }
+
+    static class Order implements Cloneable {
+        long id = 42;
+        Item first;
+        Item second;
+        List<Item> items = new ArrayList<>();
+    }
+
+    record Line(String sku, int quantity, int[] discounts) {
+    }
+
+    @Test
+    public void testObjects() {
+        Item item = new Item(1, new int[]{1, 2, 3});
+        assertAllocatesOnlyClones(item, () -> new Item(item.id, item.counts.clone()));
+    }
+
+    @Test
+    public void testCloneableGraph() {
+        Order order = new Order();
+        order.first = new Item(1, new int[]{1});
+        order.second = order.first;
+        order.items.add(order.first);
+        order.items.add(new Item(2, new int[]{2}));
+        assertAllocatesOnlyClones(order, () -> {
+            Order o = new Order(); // allocates the items list as well
+            o.first = new Item(1, order.first.counts.clone());
+            o.second = o.first;
+            o.items = new ArrayList<>(2);
+            o.items.add(o.first);
+            o.items.add(new Item(2, order.items.get(1).counts.clone()));
+            return o;
+        });
+    }
+
+    @Test
+    public void testRecords() {
+        Line line = new Line("sku", 3, new int[]{10, 20});
+        assertAllocatesOnlyClones(line, () -> new Line(line.sku(), line.quantity(), line.discounts().clone()));
+        Line[] lines = {line, new Line("other", 1, new int[0])};
+        assertAllocatesOnlyClones(lines, () -> new Line[]{
+                new Line(lines[0].sku(), lines[0].quantity(), lines[0].discounts().clone()),
+                new Line(lines[1].sku(), lines[1].quantity(), lines[1].discounts().clone())});
+    }
+
+    private void assertAllocatesOnlyClones(Object o, Supplier<Object> byHand) {
+        for (int i = 0; i < WARM_UP; i++) {
+            sink = cloner.deepClone(o);
+            sink = byHand.get();
+        }
+        long expected = allocated(byHand);
+        long actual = allocated(() -> cloner.deepClone(o));
+        assertTrue(expected > 0);
+        assertTrue(actual <= expected + SLACK, "cloning allocated " + actual + " bytes per clone instead of " + expected);
+    }
+
+    private static long allocated(Supplier<Object> s) {
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink = s.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - start) / ROUNDS;
+    }
+}
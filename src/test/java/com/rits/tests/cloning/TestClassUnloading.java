@@ -0,0 +1,153 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.IDeepCloner;
+import com.rits.cloning.IFastCloner;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that the per class caches of a cloner don't keep the cloned classes, and so their class loaders, from being
+ * unloaded
+ */
+public class TestClassUnloading {
+    public static class Plugin {
+        static final Object LOCK = new Object();
+        int id;
+        Object value;
+        Plugin next;
+        Part[] parts;
+        List<Object> items = new ArrayList<>();
+    }
+
+    public record Part(String name, Object value) {
+    }
+
+    public static class PluginCloner implements IFastCloner {
+        @Override
+        public Object clone(Object t, IDeepCloner cloner, Map<Object, Object> clones) {
+            Plugin clone = new Plugin();
+            clone.id = ((Plugin) t).id;
+            return clone;
+        }
+    }
+
+    // loaded by the application class loader, outlives the plugins
+    static class Holder {
+        Object value;
+    }
+
+    /**
+     * loads the nested classes of this test by itself, as a plugin class loader would
+     */
+    private static class PluginClassLoader extends ClassLoader {
+        PluginClassLoader() {
+            super(TestClassUnloading.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(TestClassUnloading.class.getName() + "$") || name.endsWith("$Holder")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c != null) return c;
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    byte[] b = in.readAllBytes();
+                    return defineClass(name, b, 0, b.length);
+                } catch (Exception e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnloadedClassesLeaveTheCaches() throws Exception {
+        Cloner cloner = new Cloner();
+        // the same graph of classes loaded by the application class loader, so that only the plugin classes differ
+        cloneGraph(cloner, Plugin.class);
+        Map<String, Integer> sizes = cloner.getCacheSizes();
+
+        WeakReference<ClassLoader> loader = clonePlugin(cloner);
+        for (int i = 0; i < 100 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(loader.get(), "the plugin class loader is still reachable");
+        assertEquals(sizes, cloner.getCacheSizes());
+    }
+
+    @Test
+    public void testSharedPlansDontKeepUnloadedFastCloners() throws Exception {
+        WeakReference<ClassLoader> loader = clonePluginWithFastCloner();
+        // no other cloner is created meanwhile, which would purge stale shared plans
+        for (int i = 0; i < 100 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(loader.get(), "the plugin class loader is still reachable");
+    }
+
+    private static WeakReference<ClassLoader> clonePluginWithFastCloner() throws Exception {
+        ClassLoader loader = new PluginClassLoader();
+        Class<?> plugin = loader.loadClass(Plugin.class.getName());
+        IFastCloner fastCloner = (IFastCloner) loader.loadClass(PluginCloner.class.getName()).getDeclaredConstructor().newInstance();
+        // a cloner sharing its plans with the cloners configured alike
+        Cloner cloner = new Cloner();
+        cloner.registerFastCloner(plugin, fastCloner);
+        Object p = plugin.getDeclaredConstructor().newInstance();
+        set(plugin, p, "id", 5);
+        Object clone = cloner.deepClone(p);
+        assertNotSame(p, clone);
+        assertSame(plugin, clone.getClass());
+        return new WeakReference<>(loader);
+    }
+
+    private static WeakReference<ClassLoader> clonePlugin(Cloner cloner) throws Exception {
+        ClassLoader loader = new PluginClassLoader();
+        Class<?> plugin = loader.loadClass(Plugin.class.getName());
+        assertNotSame(Plugin.class, plugin);
+        Map<String, Integer> sizes = cloner.getCacheSizes();
+        cloneGraph(cloner, plugin);
+        Map<String, Integer> pluginSizes = cloner.getCacheSizes();
+        // Plugin and Part, plus the Part[] cloner
+        assertEquals(sizes.get("cloners") + 3, pluginSizes.get("cloners"));
+        assertEquals(sizes.get("fields") + 1, pluginSizes.get("fields"));
+        return new WeakReference<>(loader);
+    }
+
+    private static void cloneGraph(Cloner cloner, Class<?> plugin) throws Exception {
+        Class<?> part = plugin.getClassLoader().loadClass(Part.class.getName());
+        Object p = plugin.getDeclaredConstructor().newInstance();
+        set(plugin, p, "id", 5);
+        set(plugin, p, "value", "v");
+        set(plugin, p, "next", p);
+        Object parts = java.lang.reflect.Array.newInstance(part, 1);
+        java.lang.reflect.Array.set(parts, 0, part.getConstructors()[0].newInstance("part", new ArrayList<>()));
+        set(plugin, p, "parts", parts);
+        cloner.registerStaticFields(plugin);
+
+        Holder holder = new Holder();
+        holder.value = p;
+        for (int i = 0; i < 3; i++) {
+            Holder clone = cloner.deepClone(holder);
+            assertNotSame(p, clone.value);
+            assertSame(plugin, clone.value.getClass());
+        }
+    }
+
+    private static void set(Class<?> c, Object o, String name, Object value) throws ReflectiveOperationException {
+        var f = c.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(o, value);
+    }
+}
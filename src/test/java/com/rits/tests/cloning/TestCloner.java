@@ -1,13 +1,17 @@
 package com.rits.tests.cloning;
 
+import com.rits.cloning.ClonePlan;
 import com.rits.cloning.Cloner;
 import com.rits.cloning.FastClonerHashMap;
+import com.rits.cloning.IInstantiationStrategy;
 import com.rits.cloning.Immutable;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
 import com.rits.tests.cloning.TestCloner.SynthOuter.Inner;
 import com.rits.tests.cloning.domain.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.objenesis.instantiator.ObjectInstantiator;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
@@ -248,6 +252,43 @@ public class TestCloner {
         }
     }
 
+    /**
+     * tests that the elements of reference arrays are cloned in place, keeping shared rows shared
+     */
+    @Test
+    public void testCloneArraysOfReferences() {
+        final int[] row = {1, 2};
+        final int[][] matrix = {row, row, null, {3}};
+        final int[][] matrixClone = cloner.deepClone(matrix);
+        assertArrayEquals(matrix, matrixClone);
+        assertNotSame(row, matrixClone[0]);
+        assertSame(matrixClone[0], matrixClone[1]);
+        assertNull(matrixClone[2]);
+
+        final String[][] table = {{"a", "b"}, {"c"}};
+        final String[][] tableClone = cloner.deepClone(table);
+        assertArrayEquals(table, tableClone);
+        assertNotSame(table[0], tableClone[0]);
+        assertSame(table[0][0], tableClone[0][0]);
+
+        final Simple simple = new Simple();
+        final Object[] mixed = {"s", 1, simple, row, simple, cloner, null};
+        final Object[] mixedClone = cloner.deepClone(mixed);
+        assertSame(mixed[0], mixedClone[0]);
+        assertSame(mixed[1], mixedClone[1]);
+        assertNotSame(simple, mixedClone[2]);
+        assertEquals(simple, mixedClone[2]);
+        assertSame(mixedClone[2], mixedClone[4]);
+        assertArrayEquals(row, (int[]) mixedClone[3]);
+        assertNotSame(row, mixedClone[3]);
+        assertNull(mixedClone[5]);
+        assertSame(mixed[3], cloner.shallowClone(mixed)[3]);
+
+        final Cloner rowsShared = new Cloner();
+        rowsShared.dontClone(int[].class);
+        assertSame(row, rowsShared.deepClone(matrix)[0]);
+    }
+
     private class Simple {
         private int x = 1;
         private String s = "simple";
@@ -762,6 +803,192 @@ public class TestCloner {
         cloner.registerFastCloner(HashMap.class, new FastClonerHashMap());
     }
 
+    static class Counters {
+        long created = 1;
+        final int id;
+        String name = "counters";
+        byte b = 2;
+        boolean enabled = true;
+        volatile long updated = 3;
+
+        Counters(int id) {
+            this.id = id;
+        }
+    }
+
+    static class MoreCounters extends Counters {
+        short s = 4;
+        char c = 'c';
+        final double ratio;
+        float f = 5.5f;
+        int[] history = {1, 2, 3};
+
+        MoreCounters(int id, double ratio) {
+            super(id);
+            this.ratio = ratio;
+        }
+    }
+
+    @Test
+    public void testClonePrimitiveFields() {
+        MoreCounters o = new MoreCounters(10, 0.25);
+        o.created = Long.MIN_VALUE;
+        o.b = -1;
+        o.c = '\uffff';
+        MoreCounters clone = cloner.deepClone(o);
+        assertNotSame(o, clone);
+        assertEquals(Long.MIN_VALUE, clone.created);
+        assertEquals(10, clone.id);
+        assertSame(o.name, clone.name);
+        assertEquals(-1, clone.b);
+        assertTrue(clone.enabled);
+        assertEquals(3, clone.updated);
+        assertEquals(4, clone.s);
+        assertEquals('\uffff', clone.c);
+        assertEquals(0.25, clone.ratio);
+        assertEquals(5.5f, clone.f);
+        assertNotSame(o.history, clone.history);
+        assertArrayEquals(o.history, clone.history);
+
+        MoreCounters shallow = cloner.shallowClone(o);
+        assertEquals(10, shallow.id);
+        assertEquals(0.25, shallow.ratio);
+        assertSame(o.history, shallow.history);
+    }
+
+    static class CloneableNode implements Cloneable {
+        final int id;
+        String name = "node";
+        transient List<String> cache = new ArrayList<>();
+        CloneableNode next;
+        final List<String> values = new ArrayList<>();
+
+        CloneableNode(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public CloneableNode clone() {
+            throw new AssertionError("overridden clone() must not be called");
+        }
+    }
+
+    @Test
+    public void testCloneableUsesObjectClone() {
+        CloneableNode o = new CloneableNode(5);
+        o.next = new CloneableNode(6);
+        o.next.next = o;
+        o.values.add("x");
+        CloneableNode clone = cloner.deepClone(o);
+        assertNotSame(o, clone);
+        assertEquals(5, clone.id);
+        assertSame(o.name, clone.name);
+        assertNotSame(o.values, clone.values);
+        assertEquals(o.values, clone.values);
+        assertNotSame(o.cache, clone.cache);
+        assertNotSame(o.next, clone.next);
+        assertSame(clone, clone.next.next);
+
+        CloneableNode shallow = cloner.shallowClone(o);
+        assertSame(o.values, shallow.values);
+        assertSame(o.next, shallow.next);
+    }
+
+    @Test
+    public void testCloneableNullTransient() {
+        Cloner c = new Cloner();
+        c.setNullTransient(true);
+        CloneableNode o = new CloneableNode(5);
+        assertNull(c.deepClone(o).cache);
+        assertNull(c.shallowClone(o).cache);
+        assertNotNull(o.cache);
+    }
+
+    @Test
+    public void testCloneableWithOwnInstantiationStrategy() {
+        List<Class<?>> instantiated = new ArrayList<>();
+        Cloner c = new Cloner(new IInstantiationStrategy() {
+            @Override
+            public <T> T newInstance(Class<T> type) {
+                return getInstantiatorOf(type).newInstance();
+            }
+
+            @Override
+            public <T> ObjectInstantiator<T> getInstantiatorOf(Class<T> type) {
+                ObjectInstantiator<T> instantiator = ObjenesisInstantiationStrategy.getInstance().getInstantiatorOf(type);
+                return () -> {
+                    instantiated.add(type);
+                    return instantiator.newInstance();
+                };
+            }
+        });
+        CloneableNode o = new CloneableNode(5);
+        CloneableNode clone = c.deepClone(o);
+        assertEquals(5, clone.id);
+        assertTrue(instantiated.contains(CloneableNode.class), instantiated.toString());
+        assertEquals(ClonePlan.Kind.FIELDS, c.explain(CloneableNode.class).getKind());
+        assertEquals(ClonePlan.Kind.OBJECT_CLONE, new Cloner().explain(CloneableNode.class).getKind());
+    }
+
+    static class Holder {
+        Object value;
+    }
+
+    @Test
+    public void testFieldTypeFeedback() {
+        Cloner c = new Cloner();
+        Holder h = new Holder();
+        // monomorphic and immutable for long enough to be respecialized
+        for (int i = 0; i < 5000; i++) {
+            h.value = i % 2 == 0 ? "value" : null;
+            assertSame(h.value, c.deepClone(h).value);
+        }
+        h.value = new ArrayList<>(List.of("a"));
+        Object clone = c.deepClone(h).value;
+        assertNotSame(h.value, clone);
+        assertEquals(h.value, clone);
+        // bimorphic, then megamorphic
+        h.value = "value";
+        assertSame(h.value, c.deepClone(h).value);
+        h.value = new int[]{1};
+        assertNotSame(h.value, c.deepClone(h).value);
+        h.value = new ArrayList<>();
+        assertNotSame(h.value, c.deepClone(h).value);
+        h.value = h;
+        Holder hc = c.deepClone(h);
+        assertSame(hc, hc.value);
+    }
+
+    @Test
+    public void testCloneInternalOverrideSeesRespecializedFields() {
+        Holder h = new Holder();
+        h.value = "value";
+        // respecializes the field within the plans shared by cloners of the same configuration
+        Cloner c = new Cloner();
+        for (int i = 0; i < 5000; i++) {
+            c.deepClone(h);
+        }
+        List<Object> seen = new ArrayList<>();
+        Cloner recording = new Cloner() {
+            @Override
+            protected <T> T cloneInternal(T o, Map<Object, Object> clones) {
+                seen.add(o);
+                return super.cloneInternal(o, clones);
+            }
+        };
+        recording.deepClone(h);
+        assertTrue(seen.contains("value"), seen.toString());
+    }
+
+    @Test
+    public void testDiscoveredFastCloner() {
+        DiscoveredFastCloner.Discovered d = new DiscoveredFastCloner.Discovered();
+        d.value = new ArrayList<>();
+        DiscoveredFastCloner.Discovered clone = cloner.deepClone(d);
+        assertTrue(clone.viaFastCloner);
+        assertNotSame(d.value, clone.value);
+    }
+
     @Test
     public void testEmptyLinkedHashMap() {
         LinkedHashMap<Integer, Integer> m = new LinkedHashMap<>();
@@ -0,0 +1,201 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.ClonerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that configuration changes are versioned, take effect after the classes were cloned, and never show half
+ * applied to concurrent deep clones
+ */
+public class TestClonerConfig {
+    static class Node {
+        transient String label = "label";
+        Leaf leaf = new Leaf();
+    }
+
+    static class Leaf {
+        transient String label = "label";
+        List<String> values = new ArrayList<>(List.of("a"));
+    }
+
+    static class Session {
+        int id = 1;
+    }
+
+    static class Holder {
+        Session session = new Session();
+        Node node = new Node();
+    }
+
+    @Test
+    public void testEachChangeIsANewVersion() {
+        Cloner cloner = new Cloner();
+        ClonerConfig initial = cloner.getConfig();
+        assertEquals(0, initial.getVersion());
+        assertTrue(initial.getIgnored().contains(String.class));
+
+        cloner.setNullTransient(true);
+        ClonerConfig changed = cloner.getConfig();
+        assertEquals(1, changed.getVersion());
+        assertTrue(changed.isNullTransient());
+        assertFalse(initial.isNullTransient());
+
+        cloner.reconfigure(b -> b.dontClone(Session.class).compileCloners(true).registerConstant(this));
+        ClonerConfig batched = cloner.getConfig();
+        assertEquals(2, batched.getVersion());
+        assertTrue(batched.getIgnored().contains(Session.class));
+        assertTrue(batched.isCompileCloners());
+        assertEquals(List.of(this), batched.getConstants());
+        assertThrows(UnsupportedOperationException.class, () -> batched.getIgnored().add(Node.class));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testNullRegistrationsAreAccepted() {
+        Cloner cloner = new Cloner();
+        Set<Class<?>> immutables = new HashSet<>();
+        immutables.add(null);
+        immutables.add(Session.class);
+        cloner.setExtraImmutables(immutables);
+        cloner.dontClone((Class) null);
+        assertTrue(cloner.getConfig().getIgnored().contains(null));
+        Holder holder = new Holder();
+        assertSame(holder.session, cloner.deepClone(holder).session);
+    }
+
+    @Test
+    public void testChangesApplyToClassesClonedBefore() {
+        Cloner cloner = new Cloner();
+        Holder holder = new Holder();
+        Holder clone = cloner.deepClone(holder);
+        assertNotSame(holder.session, clone.session);
+        assertEquals("label", clone.node.label);
+
+        cloner.dontClone(Session.class);
+        cloner.setNullTransient(true);
+        clone = cloner.deepClone(holder);
+        assertSame(holder.session, clone.session);
+        assertNull(clone.node.label);
+        assertNull(clone.node.leaf.label);
+
+        cloner.setConfig(cloner.getConfig().toBuilder().nullInsteadOfClone(Leaf.class).nullTransient(false).build());
+        clone = cloner.deepClone(holder);
+        assertNull(clone.node.leaf);
+        assertEquals("label", clone.node.label);
+    }
+
+    @Test
+    public void testSettingsReadWhileCloningKeepThePlans() {
+        Cloner cloner = new Cloner();
+        cloner.deepClone(new Holder());
+        int cloners = cloner.getCacheSizes().get("cloners");
+        cloner.registerConstant(new Object());
+        cloner.setCloningEnabled(false);
+        cloner.setCloningEnabled(true);
+        assertEquals(cloners, cloner.getCacheSizes().get("cloners"));
+    }
+
+    @Test
+    public void testPlansAreRebuiltInTheBackground() throws InterruptedException {
+        Cloner cloner = new Cloner();
+        cloner.deepClone(new Holder());
+        // plans of their own, as no other cloner registers this
+        cloner.reconfigure(b -> b.dontClone(TestClonerConfig.class));
+        // Holder and the classes reachable from its fields: Session, Node, Leaf and String
+        for (int i = 0; i < 500 && cloner.getCacheSizes().get("cloners") < 5; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(5, cloner.getCacheSizes().get("cloners"));
+    }
+
+    @Test
+    public void testClonersShareTheirPlans() {
+        Cloner first = new Cloner();
+        Cloner second = new Cloner();
+        assertSame(first.getConfig(), second.getConfig());
+        first.deepClone(new Holder());
+        assertEquals(first.getCacheSizes().get("cloners"), second.getCacheSizes().get("cloners"));
+
+        // plans of their own until the configurations match again
+        second.dontClone(Session.class);
+        assertNotEquals(first.getCacheSizes().get("cloners"), second.getCacheSizes().get("cloners"));
+        first.dontClone(Session.class);
+        first.deepClone(new Holder());
+        assertEquals(first.getCacheSizes().get("cloners"), second.getCacheSizes().get("cloners"));
+
+        Cloner custom = new Cloner() {
+            @Override
+            protected boolean considerImmutable(Class<?> clz) {
+                return clz == Node.class;
+            }
+        };
+        custom.dontClone(Session.class);
+        assertEquals(0, custom.getCacheSizes().get("cloners"));
+        Holder holder = new Holder();
+        assertSame(holder.node, custom.deepClone(holder).node);
+        assertNotSame(holder.node, first.deepClone(holder).node);
+    }
+
+    @Test
+    public void testInitHooksReadTheSettings() {
+        List<Boolean> read = new ArrayList<>();
+        Cloner cloner = new Cloner() {
+            @Override
+            protected void registerFastCloners() {
+                super.registerFastCloners();
+                read.add(isNullTransient());
+                setNullTransient(true);
+                read.add(isNullTransient());
+                read.add(getConfig().getIgnored().contains(String.class));
+            }
+        };
+        assertEquals(List.of(false, true, true), read);
+        assertTrue(cloner.isNullTransient());
+    }
+
+    @Test
+    public void testDeepClonesUseASingleVersion() throws Exception {
+        Cloner cloner = new Cloner();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    Node node = new Node();
+                    int clones = 0;
+                    while (!done.get()) {
+                        Node clone = cloner.deepClone(node);
+                        // both transient fields are cloned with the same configuration
+                        assertEquals(clone.label == null, clone.leaf.label == null);
+                        assertEquals(node.leaf.values, clone.leaf.values);
+                        if (clones++ == 0) started.countDown();
+                    }
+                    return clones;
+                }));
+            }
+            started.await();
+            for (int i = 0; i < 2000; i++) {
+                cloner.setNullTransient(i % 2 == 0);
+            }
+            done.set(true);
+            for (Future<Integer> result : results) {
+                assertTrue(result.get() > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2000, cloner.getConfig().getVersion());
+    }
+}
@@ -0,0 +1,92 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that the map tracking the clones keeps shared references and constants whatever the size of the graphs, as
+ * it is reused from one deep clone to the next and sized from the previous ones
+ */
+public class TestClonesMap {
+    static class Node {
+        Object constant;
+        Node parent;
+        Node self = this;
+        List<Node> children = new ArrayList<>();
+    }
+
+    private static Node graph(int size, Object constant) {
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = new Node();
+            nodes[i].constant = constant;
+            if (i > 0) {
+                nodes[i].parent = nodes[(i - 1) / 3];
+                nodes[i].parent.children.add(nodes[i]);
+            }
+        }
+        return nodes[0];
+    }
+
+    private static void assertCloned(Node n, Node c, Object constant, Map<Node, Node> clones) {
+        assertNotSame(n, c);
+        assertNull(clones.put(n, c), "cloned twice");
+        assertSame(c, c.self);
+        assertSame(constant, c.constant);
+        assertEquals(n.children.size(), c.children.size());
+        for (int i = 0; i < n.children.size(); i++) {
+            assertSame(c, c.children.get(i).parent);
+            assertCloned(n.children.get(i), c.children.get(i), constant, clones);
+        }
+    }
+
+    @Test
+    public void testGraphsOfAllSizes() {
+        Cloner cloner = new Cloner();
+        Object constant = new Object();
+        cloner.registerConstant(constant);
+        for (int size : new int[]{1, 2, 3, 4, 5, 9, 50, 2000, 3, 600, 1, 40000, 7}) {
+            Node graph = graph(size, constant);
+            Map<Node, Node> clones = new IdentityHashMap<>();
+            assertCloned(graph, cloner.deepClone(graph), constant, clones);
+            assertEquals(size, clones.size());
+        }
+    }
+
+    @Test
+    public void testConstantsRegisteredBetweenClones() {
+        Cloner cloner = new Cloner();
+        Object first = new Object();
+        Node graph = graph(20, first);
+        assertNotSame(first, cloner.deepClone(graph).constant);
+
+        cloner.registerConstant(first);
+        assertCloned(graph, cloner.deepClone(graph), first, new IdentityHashMap<>());
+        for (int i = 0; i < 100; i++) {
+            cloner.registerConstant(new Object());
+        }
+        Object last = new Object();
+        cloner.registerConstant(last);
+        Node small = graph(2, last);
+        assertCloned(small, cloner.deepClone(small), last, new IdentityHashMap<>());
+        assertCloned(graph, cloner.deepClone(graph), first, new IdentityHashMap<>());
+    }
+
+    @Test
+    public void testDontCloneInstances() {
+        Cloner cloner = new Cloner();
+        Node graph = graph(30, null);
+        Node kept = graph.children.get(1);
+        Node clone = cloner.deepCloneDontCloneInstances(graph, kept);
+        assertSame(kept, clone.children.get(1));
+        assertNotSame(graph.children.get(0), clone.children.get(0));
+        assertNotSame(kept, cloner.deepClone(graph).children.get(1));
+    }
+}
@@ -3,12 +3,16 @@ package com.rits.tests.cloning;
 import com.rits.cloning.Cloner;
 import com.rits.cloning.CloningStrategyFactory;
 import com.rits.cloning.ICloningStrategy;
+import com.rits.cloning.IStaticCloningStrategy;
 import org.junit.jupiter.api.Test;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,4 +64,88 @@ public class TestCloningStrategies {
 		NotAnnotatedExample ae = new NotAnnotatedExample();
 		assertNotSame(ae.o, cloner.deepClone(ae).o);
 	}
+
+	static class Value {
+	}
+
+	static class Counted {
+		Value shared = new Value();
+		Value nulled = new Value();
+		Value cloned = new Value();
+		Value perInstance = new Value();
+		int id;
+	}
+
+	record CountedRecord(Value shared, Value nulled) {
+	}
+
+	/**
+	 * shares the "shared" fields and nulls the "nulled" ones, counting how often it is asked
+	 */
+	static class ByName implements IStaticCloningStrategy {
+		final List<Field> asked = new ArrayList<>();
+
+		public Strategy strategyFor(Field field) {
+			asked.add(field);
+			if (field.getName().equals("shared")) return Strategy.SAME_INSTANCE_INSTEAD_OF_CLONE;
+			if (field.getName().equals("nulled")) return Strategy.NULL_INSTEAD_OF_CLONE;
+			return Strategy.IGNORE;
+		}
+	}
+
+	@Test
+	public void staticStrategiesAreResolvedOncePerField() {
+		for (boolean compiled : new boolean[]{false, true}) {
+			Cloner cloner = Cloner.standard();
+			cloner.setCompileCloners(compiled);
+			ByName byName = new ByName();
+			cloner.registerCloningStrategy(byName);
+			for (int i = 0; i < 10; i++) {
+				Counted c = new Counted();
+				c.id = i;
+				Counted clone = cloner.deepClone(c);
+				assertEquals(i, clone.id);
+				assertSame(c.shared, clone.shared);
+				assertNull(clone.nulled);
+				assertNotSame(c.cloned, clone.cloned);
+				assertNotNull(clone.cloned);
+
+				CountedRecord r = new CountedRecord(new Value(), new Value());
+				CountedRecord rc = cloner.deepClone(r);
+				assertSame(r.shared(), rc.shared());
+				assertNull(rc.nulled());
+			}
+			// each reference field of Counted and of the record, once
+			assertEquals(6, byName.asked.size(), "compiled=" + compiled + " " + byName.asked);
+		}
+	}
+
+	@Test
+	public void staticAndInstanceStrategiesApplyInOrder() {
+		Cloner cloner = Cloner.standard();
+		List<Object> askedFor = new ArrayList<>();
+		// asked first, so it applies even to the fields the static strategy shares
+		cloner.registerCloningStrategy((toBeCloned, field) -> {
+			askedFor.add(toBeCloned);
+			return field.getName().equals("perInstance") || ((Counted) toBeCloned).id == 1 && field.getName().equals("shared")
+					? ICloningStrategy.Strategy.NULL_INSTEAD_OF_CLONE : ICloningStrategy.Strategy.IGNORE;
+		});
+		cloner.registerCloningStrategy(new ByName());
+		// never asked for the fields the static strategy applies to
+		cloner.registerCloningStrategy((toBeCloned, field) -> {
+			assertNotEquals("shared", field.getName());
+			assertNotEquals("nulled", field.getName());
+			return field.getName().equals("cloned") ? ICloningStrategy.Strategy.SAME_INSTANCE_INSTEAD_OF_CLONE : ICloningStrategy.Strategy.IGNORE;
+		});
+		Counted c = new Counted();
+		Counted clone = cloner.deepClone(c);
+		assertSame(c.shared, clone.shared);
+		assertNull(clone.nulled);
+		assertSame(c.cloned, clone.cloned);
+		assertNull(clone.perInstance);
+		assertFalse(askedFor.isEmpty());
+
+		c.id = 1;
+		assertNull(cloner.deepClone(c).shared);
+	}
 }
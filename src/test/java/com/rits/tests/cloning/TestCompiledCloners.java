@@ -0,0 +1,133 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.CloningStrategyFactory;
+import com.rits.cloning.ICloningStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for cloners compiled per class, see {@link Cloner#setCompileCloners(boolean)}
+ */
+public class TestCompiledCloners {
+    private final Cloner cloner = new Cloner();
+
+    @BeforeEach
+    void setup() {
+        cloner.setCompileCloners(true);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Skip {
+    }
+
+    static class Base {
+        protected long id = 7;
+        private final String name;
+
+        Base(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Primitives extends Base {
+        private boolean z = true;
+        private byte b = 1;
+        private short s = 2;
+        private char c = 'c';
+        private int i = 3;
+        private volatile long l = 4;
+        private float f = 5.5f;
+        private double d = 6.5;
+        private final int fi;
+
+        Primitives(int fi) {
+            super("primitives");
+            this.fi = fi;
+        }
+    }
+
+    static class Node {
+        Node next;
+        final List<String> values = new ArrayList<>();
+        transient Object transientValue = new Object();
+        @Skip
+        Object skipped = new Object();
+    }
+
+    @Test
+    public void testPrimitivesAndFinals() {
+        Primitives p = new Primitives(42);
+        p.i = 100;
+        p.id = 8;
+        Primitives c = cloner.deepClone(p);
+        assertNotSame(p, c);
+        assertTrue(c.z);
+        assertEquals(1, c.b);
+        assertEquals(2, c.s);
+        assertEquals('c', c.c);
+        assertEquals(100, c.i);
+        assertEquals(4, c.l);
+        assertEquals(5.5f, c.f);
+        assertEquals(6.5, c.d);
+        assertEquals(42, c.fi);
+        assertEquals(8, c.id);
+        assertSame(((Base) p).name, ((Base) c).name);
+    }
+
+    @Test
+    public void testCycles() {
+        Node a = new Node();
+        Node b = new Node();
+        a.next = b;
+        b.next = a;
+        a.values.add("x");
+        Node c = cloner.deepClone(a);
+        assertNotSame(a, c);
+        assertNotSame(b, c.next);
+        assertSame(c, c.next.next);
+        assertNotSame(a.values, c.values);
+        assertEquals(a.values, c.values);
+        assertNotSame(a.transientValue, c.transientValue);
+    }
+
+    @Test
+    public void testShallowClone() {
+        Node a = new Node();
+        a.next = new Node();
+        Node c = cloner.shallowClone(a);
+        assertNotSame(a, c);
+        assertSame(a.next, c.next);
+        assertSame(a.values, c.values);
+    }
+
+    @Test
+    public void testNullTransientAndStrategies() {
+        cloner.setNullTransient(true);
+        cloner.registerCloningStrategy(CloningStrategyFactory.annotatedField(Skip.class, ICloningStrategy.Strategy.NULL_INSTEAD_OF_CLONE));
+        Node c = cloner.deepClone(new Node());
+        assertNull(c.transientValue);
+        assertNull(c.skipped);
+    }
+
+    @Test
+    public void testRepeatedClones() {
+        // exercise the compiled handles past the point the JDK customizes them
+        Node a = new Node();
+        a.next = new Node();
+        for (int i = 0; i < 1000; i++) {
+            Node c = cloner.deepClone(a);
+            assertNotSame(a.next, c.next);
+        }
+    }
+}
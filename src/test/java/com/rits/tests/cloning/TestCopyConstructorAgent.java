@@ -0,0 +1,134 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.CopyConstructorAgent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * loads classes through the {@link CopyConstructorAgent} transformer and clones them through their copy constructors
+ */
+public class TestCopyConstructorAgent {
+
+    public static class Base {
+        protected final long id;
+        protected final List<String> tags = new ArrayList<>();
+
+        public Base(long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Item extends Base {
+        private final String name;
+        private final double price;
+        private final int[] counts;
+        private Item parent;
+        private transient Object cache = new Object();
+
+        public Item(long id, String name, double price) {
+            super(id);
+            this.name = name;
+            this.price = price;
+            this.counts = new int[]{1, 2};
+        }
+    }
+
+    /**
+     * child first class loader transforming the nested classes of this test
+     */
+    private static class TransformingClassLoader extends ClassLoader {
+        private final ClassFileTransformer transformer = CopyConstructorAgent.transformer(TestCopyConstructorAgent.class.getName() + "$");
+
+        TransformingClassLoader() {
+            super(TestCopyConstructorAgent.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(TestCopyConstructorAgent.class.getName() + "$")) return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c != null) return c;
+                String internalName = name.replace('.', '/');
+                try (InputStream in = getParent().getResourceAsStream(internalName + ".class")) {
+                    byte[] b = in.readAllBytes();
+                    byte[] transformed = transformer.transform(this, internalName, null, null, b);
+                    if (transformed != null) b = transformed;
+                    return defineClass(name, b, 0, b.length);
+                } catch (Exception e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCopyConstructorsAdded() throws Exception {
+        Class<?> item = new TransformingClassLoader().loadClass(Item.class.getName());
+        Constructor<?> c = item.getDeclaredConstructor(item, BiFunction.class);
+        assertTrue(c.isSynthetic());
+        Constructor<?> b = item.getSuperclass().getDeclaredConstructor(item.getSuperclass(), BiFunction.class);
+        assertTrue(b.isSynthetic());
+        // classes outside of the selected prefix are left untouched
+        assertThrows(NoSuchMethodException.class, () -> TestCopyConstructorAgent.class.getDeclaredConstructor(TestCopyConstructorAgent.class, BiFunction.class));
+    }
+
+    @Test
+    public void testCloneThroughCopyConstructor() throws Exception {
+        Class<?> item = new TransformingClassLoader().loadClass(Item.class.getName());
+        Object o = item.getConstructor(long.class, String.class, double.class).newInstance(5L, "item", 2.5);
+        set(item, o, "parent", o);
+        @SuppressWarnings("unchecked") List<String> tags = (List<String>) get(item.getSuperclass(), o, "tags");
+        tags.add("a");
+
+        Object clone = new Cloner().deepClone(o);
+        assertNotSame(o, clone);
+        assertEquals(5L, get(item.getSuperclass(), clone, "id"));
+        assertEquals("item", get(item, clone, "name"));
+        assertEquals(2.5, get(item, clone, "price"));
+        assertSame(clone, get(item, clone, "parent"));
+        assertNotSame(tags, get(item.getSuperclass(), clone, "tags"));
+        assertEquals(tags, get(item.getSuperclass(), clone, "tags"));
+        assertNotSame(get(item, o, "counts"), get(item, clone, "counts"));
+        assertArrayEquals((int[]) get(item, o, "counts"), (int[]) get(item, clone, "counts"));
+        assertNotNull(get(item, clone, "cache"));
+
+        Object shallow = new Cloner().shallowClone(o);
+        assertSame(tags, get(item.getSuperclass(), shallow, "tags"));
+        assertSame(o, get(item, shallow, "parent"));
+    }
+
+    @Test
+    public void testFallbackWhenFieldsAreNotAllCloned() throws Exception {
+        Class<?> item = new TransformingClassLoader().loadClass(Item.class.getName());
+        Object o = item.getConstructor(long.class, String.class, double.class).newInstance(5L, "item", 2.5);
+        Cloner cloner = new Cloner();
+        cloner.setNullTransient(true);
+        Object clone = cloner.deepClone(o);
+        assertNull(get(item, clone, "cache"));
+        assertEquals("item", get(item, clone, "name"));
+    }
+
+    private static Object get(Class<?> c, Object o, String name) throws ReflectiveOperationException {
+        Field f = c.getDeclaredField(name);
+        f.setAccessible(true);
+        return f.get(o);
+    }
+
+    private static void set(Class<?> c, Object o, String name, Object value) throws ReflectiveOperationException {
+        Field f = c.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(o, value);
+    }
+}
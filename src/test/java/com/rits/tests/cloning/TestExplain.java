@@ -0,0 +1,101 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.ClonePlan;
+import com.rits.cloning.ClonePlan.Action;
+import com.rits.cloning.ClonePlan.FieldPlan;
+import com.rits.cloning.ClonePlan.Kind;
+import com.rits.cloning.ClonePlan.Reason;
+import com.rits.cloning.Cloner;
+import com.rits.cloning.FastClonerArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for {@link Cloner#explain}
+ */
+public class TestExplain {
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Skip {
+    }
+
+    static class Order {
+        long id;
+        String name;
+        List<String> lines = new ArrayList<>();
+        transient Object cache;
+        @Skip
+        Object skipped;
+    }
+
+    record Point(int x, List<String> tags) {
+    }
+
+    private static Map<String, FieldPlan> byName(ClonePlan plan) {
+        Map<String, FieldPlan> m = new HashMap<>();
+        for (FieldPlan f : plan.getFields()) {
+            m.put(f.getField().getName(), f);
+        }
+        return m;
+    }
+
+    @Test
+    public void testFieldsArePlanned() {
+        Cloner cloner = new Cloner();
+        cloner.setUseObjectClone(false);
+        cloner.setNullTransient(true);
+        cloner.nullInsteadOfCloneFieldAnnotation(Skip.class);
+        ClonePlan plan = cloner.explain(Order.class);
+        assertEquals(Order.class, plan.getType());
+        assertEquals(Kind.FIELDS, plan.getKind());
+        Map<String, FieldPlan> fields = byName(plan);
+        assertEquals(5, fields.size());
+        assertEquals(Action.COPY, fields.get("id").getAction());
+        assertEquals(Reason.PRIMITIVE, fields.get("id").getReason());
+        assertEquals(Action.COPY, fields.get("name").getAction());
+        assertEquals(Reason.SHARED_TYPE, fields.get("name").getReason());
+        assertEquals(Action.DEEP_CLONE, fields.get("lines").getAction());
+        assertEquals(Reason.MUTABLE_TYPE, fields.get("lines").getReason());
+        assertEquals(Action.NULL, fields.get("cache").getAction());
+        assertEquals(Reason.NULL_TRANSIENT, fields.get("cache").getReason());
+        assertEquals(Action.NULL, fields.get("skipped").getAction());
+        assertEquals(Reason.ANNOTATION, fields.get("skipped").getReason());
+        assertEquals(List.of(fields.get("lines")), plan.getDeepClonedFields());
+        for (FieldPlan f : plan.getFields()) {
+            assertNotNull(f.getAccessor());
+        }
+        String dump = plan.toString();
+        assertTrue(dump.startsWith(Order.class.getName() + ": fields"), dump);
+        assertTrue(dump.contains("List Order.lines: deep clone (mutable type) ["), dump);
+    }
+
+    @Test
+    public void testKinds() {
+        Cloner cloner = new Cloner();
+        assertEquals(Kind.SHARED, cloner.explain(String.class).getKind());
+        assertEquals(Kind.ARRAY, cloner.explain(int[].class).getKind());
+        assertEquals(Kind.RECORD, cloner.explain(Point.class).getKind());
+        ClonePlan list = cloner.explain(ArrayList.class);
+        assertEquals(Kind.FAST, list.getKind());
+        assertInstanceOf(FastClonerArrayList.class, list.getFastCloner());
+        assertTrue(list.getFields().isEmpty());
+
+        cloner.nullInsteadOfClone(Point.class);
+        assertEquals(Kind.NULL, cloner.explain(Point.class).getKind());
+
+        cloner.setCompileCloners(true);
+        ClonePlan compiled = cloner.explain(Order.class);
+        assertEquals(Kind.COMPILED, compiled.getKind());
+        assertEquals("compiled", byName(compiled).get("lines").getAccessor());
+    }
+}
@@ -0,0 +1,174 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks which classes the cloner infers to be immutable and so shares rather than clones
+ */
+public class TestImmutableInference {
+    private final Cloner cloner = inferring();
+
+    private static Cloner inferring() {
+        Cloner cloner = new Cloner();
+        cloner.setInferImmutables(true);
+        return cloner;
+    }
+
+    static final class Money {
+        final long amount;
+        final String currency;
+
+        Money(long amount, String currency) {
+            this.amount = amount;
+            this.currency = currency;
+        }
+    }
+
+    static final class Price {
+        final Money money;
+        final Price previous;
+        final LocalDate since;
+        final Kind kind;
+
+        Price(Money money, Price previous) {
+            this.money = money;
+            this.previous = previous;
+            this.since = LocalDate.of(2024, 1, 1);
+            this.kind = Kind.NET;
+        }
+    }
+
+    static class Product {
+        final String name;
+
+        Product(String name) {
+            this.name = name;
+        }
+    }
+
+    // the field type isn't final, so it may hold mutable sub classes
+    static final class Item {
+        final Product product;
+        final Price price;
+
+        Item(Product product, Price price) {
+            this.product = product;
+            this.price = price;
+        }
+    }
+
+    enum Kind {NET, GROSS}
+
+    static final class Counter {
+        int count;
+    }
+
+    static final class Digits {
+        final int[] digits = {1, 2};
+    }
+
+    static final class Names {
+        final List<String> names = new ArrayList<>();
+    }
+
+    static final class Cached {
+        final String value;
+        final transient String cached;
+
+        Cached(String value) {
+            this.value = value;
+            this.cached = value.toUpperCase();
+        }
+    }
+
+    static final class Lock {
+    }
+
+    @Test
+    public void testFinalFieldsOfImmutablesAreShared() {
+        Money money = new Money(5, "EUR");
+        assertSame(money, cloner.deepClone(money));
+        Price price = new Price(money, new Price(new Money(4, "EUR"), null));
+        assertSame(price, cloner.deepClone(price));
+
+        Product product = new Product("p");
+        assertSame(product, cloner.deepClone(product));
+        Item item = new Item(product, price);
+        Item clone = cloner.deepClone(item);
+        assertNotSame(item, clone);
+        assertSame(product, clone.product);
+        assertSame(price, clone.price);
+    }
+
+    @Test
+    public void testMutableStateIsCloned() {
+        assertNotSame(new Counter(), cloner.deepClone(new Counter()));
+        Digits digits = new Digits();
+        assertNotSame(digits.digits, cloner.deepClone(digits).digits);
+        Names names = new Names();
+        assertNotSame(names.names, cloner.deepClone(names).names);
+        Lock lock = new Lock();
+        assertNotSame(lock, cloner.deepClone(lock));
+    }
+
+    @Test
+    public void testInferenceIsOffByDefault() {
+        Cloner byDefault = new Cloner();
+        assertFalse(byDefault.isInferImmutables());
+        Money money = new Money(5, "EUR");
+        assertNotSame(money, byDefault.deepClone(money));
+    }
+
+    @Test
+    public void testInferenceFollowsTheConfiguration() {
+        Money money = new Money(5, "EUR");
+        Cloner notInferring = new Cloner();
+        notInferring.setInferImmutables(false);
+        Money clone = notInferring.deepClone(money);
+        assertNotSame(money, clone);
+        assertEquals("EUR", clone.currency);
+
+        Cached cached = new Cached("v");
+        assertSame(cached, cloner.deepClone(cached));
+        Cloner nullTransient = inferring();
+        nullTransient.setNullTransient(true);
+        Cached transientClone = nullTransient.deepClone(cached);
+        assertNotSame(cached, transientClone);
+        assertNull(transientClone.cached);
+
+        Cloner nullMoney = inferring();
+        nullMoney.nullInsteadOfClone(Money.class);
+        Price price = new Price(money, null);
+        assertNull(nullMoney.deepClone(price).money);
+    }
+
+    @Test
+    public void testJdkValueTypesAreShared() {
+        List<Object> values = List.of(Instant.now(), LocalDate.now(), LocalTime.now(), LocalDateTime.now(),
+                ZonedDateTime.now(ZoneId.of("Europe/Paris")), OffsetDateTime.now(), Duration.ofSeconds(5),
+                Period.ofDays(2), YearMonth.now(), ZoneId.of("Europe/Paris"), ZoneOffset.UTC, OptionalInt.of(3),
+                Optional.of("value"), Optional.empty());
+        for (Object value : values) {
+            assertSame(value, cloner.deepClone(value), value.getClass().getName());
+        }
+    }
+
+    @Test
+    public void testOptionalOfMutableValueIsCloned() {
+        List<String> list = new ArrayList<>(List.of("a"));
+        Optional<List<String>> optional = Optional.of(list);
+        Optional<List<String>> clone = cloner.deepClone(optional);
+        assertNotSame(optional, clone);
+        assertNotSame(list, clone.get());
+        assertEquals(list, clone.get());
+    }
+}
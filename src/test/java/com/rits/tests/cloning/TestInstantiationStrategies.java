@@ -0,0 +1,92 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.FastInstantiationStrategy;
+import com.rits.cloning.FastInstantiationStrategy.Route;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for {@link FastInstantiationStrategy}, which picks how to instantiate each class
+ */
+public class TestInstantiationStrategies {
+    static final AtomicInteger constructed = new AtomicInteger();
+
+    static class Pojo {
+        int id;
+        String name = "pojo";
+        transient String cache = "cache";
+        List<String> tags = new ArrayList<>();
+
+        private Pojo() {
+            constructed.incrementAndGet();
+        }
+
+        static Pojo of(int id) {
+            Pojo p = new Pojo();
+            p.id = id;
+            p.tags.add("t" + id);
+            return p;
+        }
+    }
+
+    static class NoDefaultConstructor {
+        final int id;
+
+        NoDefaultConstructor(int id) {
+            this.id = id;
+        }
+    }
+
+    static abstract class Shape {
+    }
+
+    @Test
+    public void testEachClassGetsARoute() {
+        FastInstantiationStrategy strategy = new FastInstantiationStrategy();
+        assertEquals(Route.FACTORY, strategy.getRoute(Pojo.class));
+        assertEquals(Route.OBJENESIS, strategy.getRoute(NoDefaultConstructor.class));
+        assertEquals(Route.OBJENESIS, strategy.getRoute(Shape.class));
+        assertFalse(strategy.instantiatesBlank(Pojo.class));
+        assertTrue(strategy.instantiatesBlank(NoDefaultConstructor.class));
+
+        assertEquals("pojo", strategy.newInstance(Pojo.class).name);
+        assertEquals(0, strategy.newInstance(NoDefaultConstructor.class).id);
+    }
+
+    @Test
+    public void testClonesThroughTheConstructor() {
+        Cloner cloner = new Cloner(FastInstantiationStrategy.getInstance());
+        cloner.setUseObjectClone(false);
+        Pojo p = Pojo.of(3);
+        p.name = "renamed";
+        int before = constructed.get();
+        Pojo clone = cloner.deepClone(p);
+        assertEquals(before + 1, constructed.get());
+        assertEquals(3, clone.id);
+        assertEquals("renamed", clone.name);
+        assertEquals("cache", clone.cache);
+        assertEquals(p.tags, clone.tags);
+        assertNotSame(p.tags, clone.tags);
+        assertEquals(7, cloner.deepClone(new NoDefaultConstructor(7)).id);
+    }
+
+    @Test
+    public void testExcludedFieldsAreReset() {
+        for (boolean compile : new boolean[]{false, true}) {
+            Cloner cloner = new Cloner(FastInstantiationStrategy.getInstance());
+            cloner.setNullTransient(true);
+            cloner.setCompileCloners(compile);
+            Pojo clone = cloner.deepClone(Pojo.of(1));
+            // the constructor initialized it, but it isn't cloned
+            assertNull(clone.cache);
+            assertEquals("pojo", clone.name);
+            assertNull(cloner.shallowClone(Pojo.of(2)).cache);
+        }
+    }
+}
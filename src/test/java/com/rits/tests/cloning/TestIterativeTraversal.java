@@ -0,0 +1,149 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that the iterative traversal clones graphs too deep for the recursive one, and clones like it otherwise
+ */
+public class TestIterativeTraversal {
+    private static final int DEPTH = 200_000;
+
+    static class Node {
+        int value;
+        Node next;
+        Object[] items;
+        List<Object> list = new ArrayList<>();
+    }
+
+    record Pair(Object left, Object right) {
+    }
+
+    static class Key {
+        final Object[] id;
+
+        Key(Object... id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.deepEquals(id, ((Key) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.deepHashCode(id);
+        }
+    }
+
+    private static Cloner iterativeCloner() {
+        Cloner cloner = new Cloner();
+        cloner.setIterativeTraversal(true);
+        return cloner;
+    }
+
+    private static Node chain(int depth) {
+        Node head = new Node();
+        Node n = head;
+        for (int i = 1; i < depth; i++) {
+            n.next = new Node();
+            n = n.next;
+            n.value = i;
+        }
+        return head;
+    }
+
+    @Test
+    public void testDeepChainsOverflowRecursively() {
+        assertThrows(StackOverflowError.class, () -> new Cloner().deepClone(chain(DEPTH)));
+    }
+
+    @Test
+    public void testDeepChains() {
+        Node head = chain(DEPTH);
+        Node clone = iterativeCloner().deepClone(head);
+        int i = 0;
+        for (Node n = head, c = clone; n != null; n = n.next, c = c.next, i++) {
+            assertNotSame(n, c);
+            assertEquals(i, c.value);
+        }
+        assertEquals(DEPTH, i);
+    }
+
+    @Test
+    public void testDeepChainsThroughArraysAndLists() {
+        Node head = new Node();
+        Node n = head;
+        for (int i = 1; i < DEPTH; i++) {
+            Node next = new Node();
+            next.value = i;
+            if (i % 2 == 0) n.items = new Object[]{next};
+            else n.list.add(next);
+            n = next;
+        }
+        Node c = iterativeCloner().deepClone(head);
+        for (int i = 1; i < DEPTH; i++) {
+            Node next = (Node) (i % 2 == 0 ? c.items[0] : c.list.get(0));
+            assertEquals(i, next.value);
+            c = next;
+        }
+    }
+
+    @Test
+    public void testCycles() {
+        Node head = chain(100);
+        Node last = head;
+        while (last.next != null) last = last.next;
+        last.next = head;
+        head.items = new Object[]{head, last};
+        head.list.add(head.items);
+
+        Node clone = iterativeCloner().deepClone(head);
+        Node cloneLast = clone;
+        for (int i = 1; i < 100; i++) cloneLast = cloneLast.next;
+        assertNotSame(last, cloneLast);
+        assertSame(clone, cloneLast.next);
+        assertSame(clone, clone.items[0]);
+        assertSame(cloneLast, clone.items[1]);
+        assertSame(clone.items, clone.list.get(0));
+    }
+
+    @Test
+    public void testRecordsAndHashesGetCompleteValues() {
+        Node node = chain(3);
+        Key key = new Key(node.next, "k");
+        Pair pair = new Pair(node, Map.of(key, node));
+        HashSet<Key> set = new HashSet<>(Set.of(key, new Key("other")));
+        Object[] graph = {pair, set, key};
+
+        Object[] clone = iterativeCloner().deepClone(graph);
+        Pair pairClone = (Pair) clone[0];
+        Node nodeClone = (Node) pairClone.left();
+        assertEquals(2, nodeClone.next.next.value);
+        Key keyClone = (Key) clone[2];
+        assertSame(nodeClone.next, keyClone.id[0]);
+        assertSame(nodeClone, ((Map<?, ?>) pairClone.right()).get(keyClone));
+        @SuppressWarnings("unchecked") Set<Key> setClone = (Set<Key>) clone[1];
+        assertTrue(setClone.contains(keyClone));
+        assertTrue(setClone.contains(new Key("other")));
+    }
+
+    @Test
+    public void testSameClonesAsRecursively() {
+        Cloner cloner = iterativeCloner();
+        for (Object o : new Object[]{new ArrayList<>(List.of(1, "a", new int[]{1})), new LinkedList<>(List.of(chain(5))),
+                new TreeMap<>(Map.of("a", chain(2))), new Object[][]{{"a"}, {1}}, Optional.of(new ArrayList<>(List.of(1)))}) {
+            Object clone = cloner.deepClone(o);
+            assertNotSame(o, clone);
+            assertEquals(new Cloner().deepClone(o).getClass(), clone.getClass());
+        }
+        Node head = chain(10);
+        Node shallow = cloner.shallowClone(head);
+        assertSame(head.next, shallow.next);
+    }
+}
@@ -0,0 +1,186 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that hash based maps and sets are cloned with the sizing, load factor and order of the originals. Also run
+ * without java.util open to the library, where the load factor and access order of clones of mutable keys are lost
+ */
+public class TestMapCloners {
+    static class Key {
+        static int hashed;
+        String name;
+
+        Key(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            hashed++;
+            return name.hashCode();
+        }
+    }
+
+    private static final boolean JAVA_UTIL_OPEN = HashMap.class.getModule().isOpen("java.util", Cloner.class.getModule());
+
+    private final Cloner cloner = new Cloner();
+
+    private static float loadFactorOf(HashMap<?, ?> m) throws ReflectiveOperationException {
+        Field f = HashMap.class.getDeclaredField("loadFactor");
+        f.setAccessible(true);
+        return f.getFloat(m);
+    }
+
+    private static int capacityOf(HashMap<?, ?> m) throws ReflectiveOperationException {
+        Field f = HashMap.class.getDeclaredField("table");
+        f.setAccessible(true);
+        Object[] table = (Object[]) f.get(m);
+        return table == null ? 0 : table.length;
+    }
+
+    @Test
+    public void testLinkedHashMapKeepsItsAccessOrder() {
+        LinkedHashMap<String, List<String>> m = new LinkedHashMap<>(16, 0.75f, true);
+        m.put("a", new ArrayList<>(List.of("1")));
+        m.put("b", new ArrayList<>(List.of("2")));
+        m.put("c", new ArrayList<>(List.of("3")));
+        m.get("a");
+
+        LinkedHashMap<String, List<String>> clone = cloner.deepClone(m);
+        assertEquals(List.of("b", "c", "a"), new ArrayList<>(clone.keySet()));
+        assertNotSame(m.get("b"), clone.get("b"));
+        assertEquals(List.of("2"), clone.get("b"));
+        // the get above is an access of the clone too
+        assertEquals(List.of("c", "a", "b"), new ArrayList<>(clone.keySet()));
+    }
+
+    @Test
+    public void testLoadFactorIsKeptAndNoResizeNeeded() throws ReflectiveOperationException {
+        HashMap<Integer, int[]> m = new HashMap<>(16, 0.5f);
+        for (int i = 0; i < 1000; i++) {
+            m.put(i, new int[]{i});
+        }
+        HashMap<Integer, int[]> clone = cloner.deepClone(m);
+        if (JAVA_UTIL_OPEN) {
+            assertEquals(0.5f, loadFactorOf(clone));
+            assertEquals(capacityOf(m), capacityOf(clone));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertNotSame(m.get(i), clone.get(i));
+            assertEquals(i, clone.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void testMutableKeysAreRehashed() {
+        Map<Key, Key> m = new LinkedHashMap<>();
+        Key shared = new Key("shared");
+        m.put(new Key("z"), shared);
+        m.put(shared, shared);
+        m.put(new Key("a"), null);
+
+        Map<Key, Key> clone = cloner.deepClone(m);
+        List<Key> keys = new ArrayList<>(clone.keySet());
+        assertEquals(List.of("z", "shared", "a"), keys.stream().map(k -> k.name).toList());
+        Key sharedClone = clone.get(new Key("shared"));
+        assertNotSame(shared, sharedClone);
+        assertSame(sharedClone, keys.get(1));
+        assertSame(sharedClone, clone.get(new Key("z")));
+        assertNull(clone.get(new Key("a")));
+        assertTrue(clone.containsKey(new Key("a")));
+    }
+
+    @Test
+    public void testMutableKeysAreHashedOnce() throws ReflectiveOperationException {
+        LinkedHashMap<Key, String> m = new LinkedHashMap<>(16, 0.5f, true);
+        HashSet<Key> s = new HashSet<>(16, 0.5f);
+        for (int i = 0; i < 100; i++) {
+            m.put(new Key("k" + i), "v" + i);
+            s.add(new Key("k" + i));
+        }
+        m.get(new Key("k0"));
+
+        Key.hashed = 0;
+        LinkedHashMap<Key, String> clone = cloner.deepClone(m);
+        assertEquals(100, Key.hashed);
+        assertEquals("k1", clone.keySet().iterator().next().name);
+        assertEquals("v0", clone.get(new Key("k0")));
+        assertEquals("k0", new ArrayList<>(clone.keySet()).get(99).name);
+        if (JAVA_UTIL_OPEN) {
+            assertEquals(0.5f, loadFactorOf(clone));
+            assertEquals(capacityOf(m), capacityOf(clone));
+            // an access of the clone, as of the original
+            clone.get(new Key("k1"));
+            assertEquals("k1", new ArrayList<>(clone.keySet()).get(99).name);
+        }
+
+        Key.hashed = 0;
+        HashSet<Key> setClone = cloner.deepClone(s);
+        assertEquals(100, Key.hashed);
+        assertEquals(s, setClone);
+        if (JAVA_UTIL_OPEN) {
+            Field map = HashSet.class.getDeclaredField("map");
+            map.setAccessible(true);
+            assertEquals(0.5f, loadFactorOf((HashMap<?, ?>) map.get(setClone)));
+        }
+    }
+
+    @Test
+    public void testTreeClonesCloneEachKeyOnce() {
+        Map<Object, Integer> cloned = new IdentityHashMap<>();
+        Cloner c = new Cloner();
+        c.registerFastCloner(Key.class, (t, deepCloner, clones) -> {
+            cloned.merge(t, 1, Integer::sum);
+            return new Key(((Key) t).name);
+        });
+        Map<Key, String> m = new LinkedHashMap<>();
+        Set<Key> s = new LinkedHashSet<>();
+        for (int i = 0; i < 3; i++) {
+            m.put(new Key("k" + i), "v" + i);
+            s.add(new Key("e" + i));
+        }
+
+        Map<Key, String> clone = c.deepCloneTree(m);
+        assertEquals(m, clone);
+        assertEquals("k0", clone.keySet().iterator().next().name);
+        Set<Key> setClone = c.deepCloneTree(s);
+        assertEquals(s, setClone);
+        assertEquals("e0", setClone.iterator().next().name);
+        assertEquals(6, cloned.size());
+        assertTrue(cloned.values().stream().allMatch(n -> n == 1), cloned.values().toString());
+    }
+
+    @Test
+    public void testSetsKeepTheirOrderAndElements() {
+        LinkedHashSet<Object> s = new LinkedHashSet<>();
+        Key k = new Key("k");
+        s.add("x");
+        s.add(k);
+        s.add(3);
+        LinkedHashSet<Object> clone = cloner.deepClone(s);
+        List<Object> elements = new ArrayList<>(clone);
+        assertEquals("x", elements.get(0));
+        assertNotSame(k, elements.get(1));
+        assertEquals(k, elements.get(1));
+        assertEquals(3, elements.get(2));
+
+        HashSet<String> immutables = new HashSet<>(List.of("a", "b", "c"));
+        HashSet<String> immutablesClone = cloner.deepClone(immutables);
+        assertNotSame(immutables, immutablesClone);
+        assertEquals(immutables, immutablesClone);
+        immutablesClone.add("d");
+        assertFalse(immutables.contains("d"));
+    }
+}
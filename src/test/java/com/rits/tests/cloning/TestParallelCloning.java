@@ -0,0 +1,148 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.IFastCloner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for the parallel cloning of big arrays and collections, see {@link Cloner#setParallelThreshold}
+ */
+public class TestParallelCloning {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    // the clones maps the items were cloned with, one per chunk
+    private final Set<Map<Object, Object>> maps = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
+    static class Shared {
+        int value;
+    }
+
+    static class Item {
+        int id;
+        Shared shared;
+
+        Item(int id, Shared shared) {
+            this.id = id;
+            this.shared = shared;
+        }
+    }
+
+    static class Holder {
+        Item first;
+        List<Item> items;
+        Item last;
+    }
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Cloner cloner() {
+        Cloner cloner = new Cloner();
+        cloner.setParallelThreshold(1000);
+        cloner.registerFastCloner(Item.class, (IFastCloner) (t, deepCloner, clones) -> {
+            maps.add(clones);
+            Item item = (Item) t;
+            return new Item(item.id, deepCloner.deepClone(item.shared, clones));
+        });
+        return cloner;
+    }
+
+    private <T> T cloneInPool(Cloner cloner, T o) throws Exception {
+        return pool.submit(() -> cloner.deepClone(o)).get();
+    }
+
+    private static List<Item> items(int n, boolean shared) {
+        Shared s = new Shared();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            items.add(new Item(i, shared ? s : new Shared()));
+        }
+        return items;
+    }
+
+    @Test
+    public void testClonesInChunks() throws Exception {
+        Holder holder = new Holder();
+        holder.items = items(10000, false);
+        holder.first = holder.items.get(0);
+        holder.last = holder.items.get(9999);
+        Holder clone = cloneInPool(cloner(), holder);
+        assertTrue(maps.size() > 1);
+        assertEquals(10000, clone.items.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, clone.items.get(i).id);
+            assertNotSame(holder.items.get(i), clone.items.get(i));
+            assertNotSame(holder.items.get(i).shared, clone.items.get(i).shared);
+        }
+        // cloned before the list, and after it, from the merged clones of the chunks
+        assertSame(clone.first, clone.items.get(0));
+        assertSame(clone.last, clone.items.get(9999));
+    }
+
+    @Test
+    public void testObjectsSharedAcrossChunksAreClonedOnce() throws Exception {
+        Cloner cloner = cloner();
+        List<Item> items = items(10000, true);
+        List<Item> clone = cloneInPool(cloner, items);
+        Shared shared = clone.get(0).shared;
+        assertNotSame(items.get(0).shared, shared);
+        for (Item item : clone) {
+            assertSame(shared, item.shared);
+        }
+        // graphs of the same root class are cloned sequentially from then on
+        maps.clear();
+        clone = cloneInPool(cloner, items);
+        assertEquals(1, maps.size());
+        assertSame(clone.get(0).shared, clone.get(9999).shared);
+    }
+
+    @Test
+    public void testMapsAndArrays() throws Exception {
+        Cloner cloner = cloner();
+        List<Item> items = items(5000, false);
+        Map<Integer, Item> hashMap = new HashMap<>();
+        Map<Integer, Item> concurrentMap = new ConcurrentHashMap<>();
+        for (Item item : items) {
+            hashMap.put(item.id, item);
+            concurrentMap.put(item.id, item);
+        }
+        Object[] all = {hashMap, concurrentMap, items.toArray(new Item[0])};
+        Object[] clone = cloneInPool(cloner, all);
+        assertTrue(maps.size() > 1);
+        @SuppressWarnings("unchecked") Map<Integer, Item> hashMapClone = (Map<Integer, Item>) clone[0];
+        @SuppressWarnings("unchecked") Map<Integer, Item> concurrentMapClone = (Map<Integer, Item>) clone[1];
+        Item[] arrayClone = (Item[]) clone[2];
+        assertEquals(5000, hashMapClone.size());
+        assertEquals(5000, concurrentMapClone.size());
+        for (int i = 0; i < 5000; i++) {
+            Item item = hashMapClone.get(i);
+            assertEquals(i, item.id);
+            assertNotSame(items.get(i), item);
+            assertSame(item, concurrentMapClone.get(i));
+            assertSame(item, arrayClone[i]);
+        }
+    }
+
+    @Test
+    public void testBelowTheThresholdOrWithoutParallelism() throws Exception {
+        Cloner cloner = cloner();
+        cloneInPool(cloner, items(999, false));
+        assertEquals(1, maps.size());
+        maps.clear();
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            single.submit(() -> cloner.deepClone(items(10000, false))).get();
+        } finally {
+            single.shutdownNow();
+        }
+        assertEquals(1, maps.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.PrepareSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that prepare plans the classes reachable from its roots, so that deep clones don't have to
+ */
+public class TestPrepare {
+    enum Status {OPEN, CLOSED}
+
+    static final class Money {
+        final long cents;
+
+        Money(long cents) {
+            this.cents = cents;
+        }
+    }
+
+    static class Address {
+        String street = "main";
+    }
+
+    static class Customer {
+        Address address = new Address();
+    }
+
+    static class Product {
+        String name = "p";
+        double price = 2;
+    }
+
+    static class Line {
+        Product product = new Product();
+        int quantity = 3;
+    }
+
+    static class Order {
+        String id = "o";
+        Status status = Status.OPEN;
+        Customer customer = new Customer();
+        List<Line> lines = new ArrayList<>(List.of(new Line(), new Line()));
+        Map<String, Product> products = new HashMap<>(Map.of("p", new Product()));
+        Money[] totals = {new Money(5)};
+    }
+
+    @Test
+    public void testReachableClassesArePlanned() {
+        Cloner cloner = new Cloner();
+        // plans of its own, as no other cloner registers this
+        cloner.dontClone(TestPrepare.class);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PrepareSummary summary;
+        try {
+            summary = cloner.prepare(pool, Order.class);
+        } finally {
+            pool.shutdown();
+        }
+        Set<Class<?>> planned = new HashSet<>(summary.getPlanned());
+        assertEquals(summary.getPlanned().size(), planned.size());
+        assertEquals(Set.of(Order.class, String.class, Status.class, Customer.class, Address.class, Line.class,
+                Product.class, Money[].class, Money.class), planned);
+        assertEquals(Set.of(String.class, Status.class), summary.getNotCloned());
+        assertTrue(summary.getFailures().isEmpty());
+        assertEquals(planned.size(), cloner.getCacheSizes().get("cloners"));
+
+        Order order = new Order();
+        Order clone = cloner.deepClone(order);
+        assertNotSame(order.lines.get(0).product, clone.lines.get(0).product);
+        assertNotSame(order.totals[0], clone.totals[0]);
+        // only the implementations of the List and Map fields were left to plan
+        assertEquals(planned.size() + 2, cloner.getCacheSizes().get("cloners"));
+    }
+
+    @Test
+    public void testPreparingTwiceFindsTheSameClasses() {
+        Cloner cloner = new Cloner();
+        PrepareSummary first = cloner.prepare(Order.class, Customer.class);
+        PrepareSummary second = cloner.prepare(Order.class);
+        assertEquals(new HashSet<>(first.getPlanned()), new HashSet<>(second.getPlanned()));
+        assertTrue(second.toString().startsWith("prepared 9 classes (2 not cloned, 0 failed)"), second.toString());
+    }
+}
@@ -0,0 +1,69 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.PrepareSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks that a profile saved by one cloner lets another plan the same classes before cloning them
+ */
+public class TestProfile {
+    static class Order implements Cloneable {
+        String id = "o";
+        List<Line> lines = new ArrayList<>(List.of(new Line()));
+        Line[] extra = {new Line()};
+    }
+
+    static class Line {
+        int quantity = 2;
+    }
+
+    /**
+     * @return a cloner with plans of its own, as no other cloner registers the class
+     */
+    private static Cloner newCloner(Class<?> marker) {
+        Cloner cloner = new Cloner();
+        cloner.dontClone(marker);
+        return cloner;
+    }
+
+    @Test
+    public void testProfileIsPlannedOnLoad(@TempDir Path dir) throws Exception {
+        Path profile = dir.resolve("cloning.profile");
+        Cloner cloner = newCloner(TestProfile.class);
+        cloner.deepClone(new Order());
+        cloner.saveProfile(profile);
+
+        List<String> lines = Files.readAllLines(profile);
+        assertTrue(lines.get(0).startsWith("#"));
+        assertTrue(lines.contains(Order.class.getName() + "\tobject-clone"), lines.toString());
+        assertTrue(lines.contains(Line.class.getName() + "\tfields"), lines.toString());
+        assertTrue(lines.contains(Line[].class.getName() + "\tarray"), lines.toString());
+        assertTrue(lines.contains("java.util.ArrayList\tfast:com.rits.cloning.FastClonerArrayList"), lines.toString());
+        Files.write(profile, List.of("com.acme.Removed\tfields"), java.nio.file.StandardOpenOption.APPEND);
+
+        Cloner restarted = newCloner(Order.class);
+        PrepareSummary summary = restarted.loadProfile(profile);
+        assertEquals(lines.size() - 1, summary.getPlanned().size());
+        assertEquals(new HashSet<>(summary.getPlanned()).size(), restarted.getCacheSizes().get("cloners"));
+        assertTrue(summary.getPlanned().containsAll(List.of(Order.class, Line.class, Line[].class, ArrayList.class)));
+
+        int planned = restarted.getCacheSizes().get("cloners");
+        Order clone = restarted.deepClone(new Order());
+        assertEquals(2, clone.lines.get(0).quantity);
+        assertEquals(planned, restarted.getCacheSizes().get("cloners"));
+    }
+
+    @Test
+    public void testMissingProfilePlansNothing(@TempDir Path dir) throws Exception {
+        PrepareSummary summary = new Cloner().loadProfile(dir.resolve("missing.profile"));
+        assertTrue(summary.getPlanned().isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.CloningException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests for cloning records through their canonical constructor
+ */
+public class TestRecords {
+    private final Cloner cloner = new Cloner();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    @interface Skip {
+    }
+
+    record Point(int x, int y, String label, TimeUnit unit) {
+    }
+
+    record Segment(Point from, Point to) {
+    }
+
+    record Tagged(String name, List<String> tags, int[] weights) {
+        Tagged {
+            if (name == null) throw new IllegalArgumentException("name");
+        }
+
+        @Override
+        public List<String> tags() {
+            throw new AssertionError("accessors must not be called");
+        }
+    }
+
+    record Holder(Point point, List<Object> values, @Skip Object skipped, BigDecimal amount) {
+    }
+
+    record Linked(String name, Linked next) {
+    }
+
+    @Test
+    public void testRecordsOfImmutablesAreShared() {
+        Point p = new Point(1, 2, "p", TimeUnit.SECONDS);
+        assertSame(p, cloner.deepClone(p));
+        Segment s = new Segment(p, new Point(3, 4, "q", null));
+        assertSame(s, cloner.deepClone(s));
+        Linked l = new Linked("a", new Linked("b", null));
+        assertSame(l, cloner.deepClone(l));
+    }
+
+    @Test
+    public void testRecordIsClonedThroughConstructor() {
+        Tagged t = new Tagged("t", new ArrayList<>(List.of("a", "b")), new int[]{1, 2});
+        Tagged c = cloner.deepClone(t);
+        assertNotSame(t, c);
+        assertSame(t.name(), c.name());
+        assertNotSame(t.tags, c.tags);
+        assertEquals(t.tags, c.tags);
+        assertNotSame(t.weights(), c.weights());
+        assertArrayEquals(t.weights(), c.weights());
+
+        Tagged shallow = cloner.shallowClone(t);
+        assertNotSame(t, shallow);
+        assertSame(t.tags, shallow.tags);
+    }
+
+    @Test
+    public void testSharedReferencesAndNullInsteadAnnotations() {
+        cloner.nullInsteadOfCloneFieldAnnotation(Skip.class);
+        List<Object> values = new ArrayList<>();
+        Holder h = new Holder(new Point(1, 1, "p", null), values, new Object(), BigDecimal.ONE);
+        values.add(h.point());
+        List<Object> outer = new ArrayList<>(List.of(h, values));
+        List<Object> clone = cloner.deepClone(outer);
+        Holder hc = (Holder) clone.get(0);
+        assertNotSame(h, hc);
+        assertSame(h.point(), hc.point());
+        assertSame(hc.values(), clone.get(1));
+        assertNull(hc.skipped());
+        assertEquals(BigDecimal.ONE, hc.amount());
+    }
+
+    @Test
+    public void testCycleThroughRecordIsReported() {
+        List<Object> values = new ArrayList<>();
+        Holder h = new Holder(null, values, null, null);
+        values.add(h);
+        assertThrows(CloningException.class, () -> cloner.deepClone(h));
+    }
+}
@@ -0,0 +1,91 @@
+package com.rits.tests.cloning;
+
+import com.rits.cloning.Cloner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * checks deepCloneTree, which doesn't track the clones of graphs known to be trees
+ */
+public class TestTreeClone {
+    static final Object ROOT_KIND = new Object();
+
+    static class Node {
+        String name;
+        int[] weights = {1, 2};
+        Object kind = ROOT_KIND;
+        List<Node> children = new ArrayList<>();
+        Map<String, Leaf> leaves = new HashMap<>();
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Leaf {
+        long value;
+    }
+
+    record Entry(String key, Node node) {
+    }
+
+    private static Node tree(String name, int depth) {
+        Node node = new Node(name);
+        if (depth > 0) {
+            node.children.add(tree(name + ".0", depth - 1));
+            node.children.add(tree(name + ".1", depth - 1));
+        }
+        Leaf leaf = new Leaf();
+        leaf.value = depth;
+        node.leaves.put(name, leaf);
+        return node;
+    }
+
+    private static void assertClonedTree(Node n, Node c) {
+        assertNotSame(n, c);
+        assertEquals(n.name, c.name);
+        assertNotSame(n.weights, c.weights);
+        assertNotSame(n.children, c.children);
+        assertNotSame(n.leaves.get(n.name), c.leaves.get(c.name));
+        assertEquals(n.leaves.get(n.name).value, c.leaves.get(c.name).value);
+        assertEquals(n.children.size(), c.children.size());
+        for (int i = 0; i < n.children.size(); i++) {
+            assertClonedTree(n.children.get(i), c.children.get(i));
+        }
+    }
+
+    @Test
+    public void testTrees() {
+        Cloner cloner = new Cloner();
+        cloner.registerConstant(ROOT_KIND);
+        Node tree = tree("root", 6);
+        Node clone = cloner.deepCloneTree(tree);
+        assertClonedTree(tree, clone);
+        assertSame(ROOT_KIND, clone.kind);
+
+        Entry entry = new Entry("e", tree);
+        Entry entryClone = cloner.deepCloneTree(entry);
+        assertNotSame(entry, entryClone);
+        assertClonedTree(tree, entryClone.node());
+
+        cloner.setIterativeTraversal(true);
+        assertClonedTree(tree, cloner.deepCloneTree(tree));
+    }
+
+    @Test
+    public void testSharedReferencesAreClonedOncePerReference() {
+        Cloner cloner = new Cloner();
+        Leaf leaf = new Leaf();
+        Leaf[] leaves = {leaf, leaf};
+        Leaf[] treeClone = cloner.deepCloneTree(leaves);
+        assertNotSame(treeClone[0], treeClone[1]);
+        Leaf[] clone = cloner.deepClone(leaves);
+        assertSame(clone[0], clone[1]);
+    }
+}